@@ -1,14 +1,26 @@
 package com.vanillaplus.rpg;
 
 import com.vanillaplus.rpg.command.ModCommands;
+import com.vanillaplus.rpg.config.RpgConfig;
 import com.vanillaplus.rpg.config.ShopConfig;
+import com.vanillaplus.rpg.config.ShopConfigWatcher;
+import com.vanillaplus.rpg.data.EconomyJournal;
 import com.vanillaplus.rpg.data.PlayerDataManager;
+import com.vanillaplus.rpg.data.ProfilePreloader;
+import com.vanillaplus.rpg.economy.AuctionHouse;
 import com.vanillaplus.rpg.economy.MarketManager;
+import com.vanillaplus.rpg.economy.PriceCatalog;
+import com.vanillaplus.rpg.network.AuctionNetworking;
 import com.vanillaplus.rpg.network.PlayerDataSyncHandler;
+import com.vanillaplus.rpg.xp.PlacedBlockTracker;
+import com.vanillaplus.rpg.xp.RewardAccumulator;
+import com.vanillaplus.rpg.xp.RewardDefinitions;
+import com.vanillaplus.rpg.xp.RewardsReloadListener;
 import com.vanillaplus.rpg.xp.XpEventHandler;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerConfigurationConnectionEvents;
 import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -33,7 +45,10 @@ public class VanillaPlusRpg implements ModInitializer {
     public void onInitialize() {
         LOGGER.info("Initializing {} for Minecraft 1.21.11", MOD_ID);
         
-        // Load shop configuration
+        // Load mod configuration
+        RpgConfig.init();
+        
+        // Load the bundled shop configuration (the override file needs every mod's items, see SERVER_STARTING)
         ShopConfig.init();
         
         // Register commands
@@ -42,8 +57,20 @@ public class VanillaPlusRpg implements ModInitializer {
         // Register XP event handlers
         XpEventHandler.register();
         
+        // Reward values come from rewards.json in data packs
+        RewardsReloadListener.register();
+        
+        // Player-placed blocks are tracked per chunk so they can't be farmed for rewards
+        PlacedBlockTracker.register();
+        
         // Register network handlers (server-side)
         PlayerDataSyncHandler.registerServer();
+        AuctionNetworking.registerServer();
+        
+        // Start reading player data as soon as the login is accepted, so JOIN doesn't wait on the disk
+        ServerConfigurationConnectionEvents.BEFORE_CONFIGURE.register((handler, server) -> {
+            ProfilePreloader.preload(handler.getOwner().id());
+        });
         
         // Player join/leave handlers
         ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> {
@@ -51,22 +78,65 @@ public class VanillaPlusRpg implements ModInitializer {
             PlayerDataManager.initNewPlayer(handler.getPlayer());
             // Sync data immediately on join
             PlayerDataSyncHandler.syncToPlayer(handler.getPlayer());
+            PlayerDataSyncHandler.syncPricesToPlayer(handler.getPlayer());
         });
         
         ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
-            // Save and unload player data
+            // Pay out queued rewards, then save and unload player data
+            RewardAccumulator.flush(handler.getPlayer());
             PlayerDataManager.unloadPlayer(handler.getPlayer());
         });
         
         // Server lifecycle events
+        ServerLifecycleEvents.SERVER_STARTING.register(server -> {
+            // All items are registered by now - apply the shop override, then build the price table by raw item id
+            ShopConfig.loadOverride();
+            PriceCatalog.rebuild();
+            PlayerDataManager.init(server);
+        });
+        
         ServerLifecycleEvents.SERVER_STARTED.register(server -> {
             LOGGER.info("{} server started!", MOD_ID);
+            // Tags are bound now - publish the rewards loaded with the data packs and compile the lookup tables
+            RewardDefinitions.publish(true);
             MarketManager.init(server);
+            AuctionHouse.init(server);
+            ShopConfigWatcher.start(server);
+        });
+        
+        // /reload: swap in the new rewards.json and recompile against the new tags, or keep the old ones if it failed
+        ServerLifecycleEvents.END_DATA_PACK_RELOAD.register((server, resourceManager, success) -> {
+            RewardDefinitions.publish(success);
+        });
+        
+        // Flush batched player data, the market state and the order log alongside world autosaves and on shutdown
+        ServerLifecycleEvents.BEFORE_SAVE.register((server, flush, force) -> {
+            PlayerDataManager.flushDirty();
+            MarketManager.save();
+            AuctionHouse.save();
+        });
+        
+        ServerLifecycleEvents.SERVER_STOPPING.register(server -> {
+            ShopConfigWatcher.stop();
+            AuctionHouse.shutdown();
+            RewardAccumulator.flushAll(server);
+            PlayerDataManager.flushDirty();
+            MarketManager.save();
+        });
+        
+        // Players are saved during shutdown after SERVER_STOPPING, so drain the writer last
+        ServerLifecycleEvents.SERVER_STOPPED.register(server -> {
+            PlayerDataManager.shutdown();
         });
         
-        // Server tick events - for market rotation
+        // Server tick events - for market rotation, auction matching, reward payouts, batched saves and the economy journal
         ServerTickEvents.END_SERVER_TICK.register(server -> {
             MarketManager.tick(server);
+            AuctionHouse.tick();
+            RewardAccumulator.tick(server);
+            PlayerDataManager.tick();
+            // Group commit of this tick's money changes
+            EconomyJournal.endTick(server.getTickCount());
         });
         
         LOGGER.info("{} initialized successfully!", MOD_ID);
@@ -1,12 +1,16 @@
 package com.vanillaplus.rpg;
 
+import com.vanillaplus.rpg.client.ClientPriceCache;
 import com.vanillaplus.rpg.client.HudRenderer;
 import com.vanillaplus.rpg.client.KeyBindings;
 import com.vanillaplus.rpg.client.RewardOverlay;
+import com.vanillaplus.rpg.economy.PriceCatalog;
 import com.vanillaplus.rpg.network.PlayerDataSyncHandler;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +44,12 @@ public class VanillaPlusRpgClient implements ClientModInitializer {
         // Register network handlers (client-side)
         PlayerDataSyncHandler.registerClient();
         
+        // Price table for the shop screens, built once all items are registered
+        ClientLifecycleEvents.CLIENT_STARTED.register(client -> PriceCatalog.rebuild());
+        
+        // Server prices only apply while connected to that server
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> ClientPriceCache.clear());
+        
         LOGGER.info("{} client initialized successfully!", VanillaPlusRpg.MOD_ID);
     }
 }
@@ -0,0 +1,66 @@
+package com.vanillaplus.rpg.client;
+
+import com.vanillaplus.rpg.economy.PriceCatalog;
+import com.vanillaplus.rpg.economy.PriceQuote;
+import net.fabricmc.api.EnvType;
+import net.fabricmc.api.Environment;
+import net.minecraft.world.item.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Client-side copy of the server's effective prices (demand and hot/cheap bonuses included)
+ * The shop screens read prices from here so they show what /buy and /sell actually charge.
+ * Until the first sync arrives, the catalog base prices are shown.
+ */
+@Environment(EnvType.CLIENT)
+public class ClientPriceCache {
+    
+    private static PriceQuote quote = null;
+    
+    /**
+     * Replace the prices from server sync
+     */
+    public static void update(PriceQuote synced) {
+        quote = synced;
+    }
+    
+    /**
+     * Forget the server's prices (on disconnect)
+     */
+    public static void clear() {
+        quote = null;
+    }
+    
+    /**
+     * Buy price for an item, or 0 if it can't be bought
+     */
+    public static long getBuyPrice(Item item) {
+        if (quote == null) return PriceCatalog.get().getBuyPrice(item);
+        return quote.getBuyPrice(item);
+    }
+    
+    /**
+     * Items the server sells, in raw id order (the shop listing)
+     */
+    public static List<Item> getBuyableItems() {
+        if (quote != null) return quote.getBuyableItems();
+        PriceCatalog catalog = PriceCatalog.get();
+        List<Item> items = new ArrayList<>();
+        for (Item item : catalog.getItems()) {
+            if (catalog.canBuy(item)) {
+                items.add(item);
+            }
+        }
+        return items;
+    }
+    
+    /**
+     * Sell price for an item, or 0 if it can't be sold
+     */
+    public static long getSellPrice(Item item) {
+        if (quote == null) return PriceCatalog.get().getSellPrice(item);
+        return quote.getSellPrice(item);
+    }
+}
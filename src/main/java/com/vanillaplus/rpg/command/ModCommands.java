@@ -1,27 +1,60 @@
 package com.vanillaplus.rpg.command;
 
 import com.vanillaplus.rpg.VanillaPlusRpg;
+import com.vanillaplus.rpg.config.ShopConfig;
+import com.vanillaplus.rpg.data.AccountService;
+import com.vanillaplus.rpg.data.PersistenceExecutor;
+import com.vanillaplus.rpg.data.EconomyJournal;
 import com.vanillaplus.rpg.data.PlayerDataManager;
-import com.vanillaplus.rpg.economy.ItemPricing;
+import com.vanillaplus.rpg.data.PlayerProfile;
+import com.vanillaplus.rpg.data.ProfileCache;
+import com.vanillaplus.rpg.data.ProfileCodecs;
+import com.vanillaplus.rpg.data.ProfilePreloader;
+import com.vanillaplus.rpg.data.StorageTool;
+import com.vanillaplus.rpg.economy.AuctionHouse;
+import com.vanillaplus.rpg.economy.DemandTracker;
 import com.vanillaplus.rpg.economy.MarketManager;
+import com.vanillaplus.rpg.economy.OrderBook;
+import com.vanillaplus.rpg.economy.PriceCatalog;
+import com.vanillaplus.rpg.economy.PriceQuote;
+import com.vanillaplus.rpg.xp.PlacedBlockTracker;
+import com.vanillaplus.rpg.xp.RewardAccumulator;
 import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.LongArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.minecraft.commands.CommandSourceStack;
 import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.EntityArgument;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.Items;
 
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Command registration for the mod
  * 
  * UPDATED: Client-side screens, server-side buy/sell commands
  */
 public class ModCommands {
+    // Encode/decode rounds per codec for /rpgadmin codecbench
+    private static final int CODEC_BENCH_ITERATIONS = 20_000;
+    // Lines shown for /rpgadmin reloadshop before "... and N more"
+    private static final int MAX_LISTED_LINES = 15;
+    // Items with the biggest supply/demand price moves listed by /market
+    private static final int MARKET_MOVERS_SHOWN = 3;
+    // Width of the bars in /daily history
+    private static final int HISTORY_BAR_WIDTH = 20;
+    // Price levels per side shown by /ah book
+    private static final int AUCTION_LEVELS_SHOWN = 5;
     
     /**
      * Check if source has operator permission
@@ -105,6 +138,87 @@ public class ModCommands {
                 )
             );
             
+            // /pay <player> <amount> - Give money to another player
+            dispatcher.register(Commands.literal("pay")
+                .then(Commands.argument("player", EntityArgument.player())
+                    .then(Commands.argument("amount", IntegerArgumentType.integer(1))
+                        .executes(context -> payPlayer(context.getSource(),
+                            EntityArgument.getPlayer(context, "player"),
+                            IntegerArgumentType.getInteger(context, "amount")))
+                    )
+                )
+            );
+            
+            // /ah - Player-to-player auction house
+            dispatcher.register(Commands.literal("ah")
+                .then(Commands.literal("sell")
+                    .then(Commands.argument("price", LongArgumentType.longArg(1))
+                        .executes(context -> auctionSellHeld(context.getSource(),
+                            LongArgumentType.getLong(context, "price"), -1)) // -1 = whole stack
+                        .then(Commands.argument("amount", IntegerArgumentType.integer(1, AuctionHouse.MAX_ORDER_QUANTITY))
+                            .executes(context -> auctionSellHeld(context.getSource(),
+                                LongArgumentType.getLong(context, "price"),
+                                IntegerArgumentType.getInteger(context, "amount")))
+                        )
+                    )
+                )
+                .then(Commands.literal("buy")
+                    .then(Commands.argument("item", StringArgumentType.string())
+                        .then(Commands.argument("price", LongArgumentType.longArg(1))
+                            .then(Commands.argument("amount", IntegerArgumentType.integer(1, AuctionHouse.MAX_ORDER_QUANTITY))
+                                .executes(context -> auctionBuy(context.getSource(),
+                                    StringArgumentType.getString(context, "item"),
+                                    LongArgumentType.getLong(context, "price"),
+                                    IntegerArgumentType.getInteger(context, "amount")))
+                            )
+                        )
+                    )
+                )
+                .then(Commands.literal("book")
+                    .then(Commands.argument("item", StringArgumentType.string())
+                        .executes(context -> {
+                            showOrderBook(context.getSource(), StringArgumentType.getString(context, "item"));
+                            return 1;
+                        })
+                    )
+                )
+                .then(Commands.literal("orders")
+                    .executes(context -> {
+                        ServerPlayer player = context.getSource().getPlayerOrException();
+                        showOpenOrders(player);
+                        return 1;
+                    })
+                )
+                .then(Commands.literal("cancel")
+                    .then(Commands.argument("id", LongArgumentType.longArg(1))
+                        .executes(context -> {
+                            ServerPlayer player = context.getSource().getPlayerOrException();
+                            return AuctionHouse.cancelOrder(player, LongArgumentType.getLong(context, "id")) ? 1 : 0;
+                        })
+                    )
+                )
+                .then(Commands.literal("collect")
+                    .executes(context -> {
+                        ServerPlayer player = context.getSource().getPlayerOrException();
+                        if (!AuctionHouse.isAvailable()) {
+                            player.sendSystemMessage(Component.literal("§cThe auction house is unavailable!"));
+                            return 0;
+                        }
+                        long refunded = AuctionHouse.collectRefunds(player);
+                        int collected = AuctionHouse.collect(player);
+                        if (refunded > 0) {
+                            player.sendSystemMessage(Component.literal("§a✓ Received §6$%,d §ain held refunds".formatted(refunded)));
+                        }
+                        if (collected > 0) {
+                            player.sendSystemMessage(Component.literal("§a✓ Collected " + collected + " items from the auction house"));
+                        } else if (refunded == 0) {
+                            player.sendSystemMessage(Component.literal("§7Nothing to collect."));
+                        }
+                        return collected > 0 || refunded > 0 ? 1 : 0;
+                    })
+                )
+            );
+            
             // /balance or /bal - Show player's balance
             dispatcher.register(Commands.literal("balance")
                 .executes(context -> {
@@ -146,6 +260,13 @@ public class ModCommands {
                     showDailyReport(player);
                     return 1;
                 })
+                .then(Commands.literal("history")
+                    .executes(context -> {
+                        ServerPlayer player = context.getSource().getPlayerOrException();
+                        showEarningsHistory(player);
+                        return 1;
+                    })
+                )
             );
             
             // Admin commands (OP only)
@@ -156,7 +277,7 @@ public class ModCommands {
                         .executes(context -> {
                             ServerPlayer player = context.getSource().getPlayerOrException();
                             int amount = IntegerArgumentType.getInteger(context, "amount");
-                            PlayerDataManager.setMoney(player, amount);
+                            PlayerDataManager.edit(player, EconomyJournal.Reason.ADMIN, profile -> profile.setMoney(amount));
                             player.sendSystemMessage(Component.literal(
                                 "§aSet your money to $" + amount
                             ));
@@ -169,8 +290,10 @@ public class ModCommands {
                         .executes(context -> {
                             ServerPlayer player = context.getSource().getPlayerOrException();
                             int level = IntegerArgumentType.getInteger(context, "level");
-                            PlayerDataManager.setRpgLevel(player, level);
-                            PlayerDataManager.setRpgXp(player, 0);
+                            PlayerDataManager.edit(player, profile -> {
+                                profile.setRpgLevel(level);
+                                profile.setRpgXp(0);
+                            });
                             player.sendSystemMessage(Component.literal(
                                 "§aSet your level to " + level
                             ));
@@ -183,7 +306,7 @@ public class ModCommands {
                         .executes(context -> {
                             ServerPlayer player = context.getSource().getPlayerOrException();
                             int amount = IntegerArgumentType.getInteger(context, "amount");
-                            PlayerDataManager.addRpgXp(player, amount);
+                            PlayerDataManager.edit(player, profile -> profile.addRpgXp(amount));
                             player.sendSystemMessage(Component.literal(
                                 "§aAdded " + amount + " XP"
                             ));
@@ -196,7 +319,7 @@ public class ModCommands {
                         .executes(context -> {
                             ServerPlayer player = context.getSource().getPlayerOrException();
                             int amount = IntegerArgumentType.getInteger(context, "amount");
-                            PlayerDataManager.addMoney(player, amount);
+                            PlayerDataManager.edit(player, EconomyJournal.Reason.ADMIN, profile -> profile.addMoney(amount));
                             player.sendSystemMessage(Component.literal(
                                 "§aAdded $" + amount + " to your balance"
                             ));
@@ -204,6 +327,32 @@ public class ModCommands {
                         })
                     )
                 )
+                .then(Commands.literal("persistence")
+                    .executes(context -> {
+                        showPersistenceStats(context.getSource());
+                        return 1;
+                    })
+                )
+                .then(Commands.literal("storage")
+                    .then(Commands.literal("stats")
+                        .executes(context -> runStorageTool(context.getSource(), StorageTool.Operation.STATS)))
+                    .then(Commands.literal("verify")
+                        .executes(context -> runStorageTool(context.getSource(), StorageTool.Operation.VERIFY)))
+                    .then(Commands.literal("migrate")
+                        .executes(context -> runStorageTool(context.getSource(), StorageTool.Operation.MIGRATE)))
+                )
+                .then(Commands.literal("codecbench")
+                    .executes(context -> {
+                        benchmarkCodecs(context.getSource());
+                        return 1;
+                    })
+                )
+                .then(Commands.literal("reloadshop")
+                    .executes(context -> {
+                        reloadShop(context.getSource());
+                        return 1;
+                    })
+                )
                 .then(Commands.literal("rotatemarket")
                     .executes(context -> {
                         MarketManager.rotateMarket(context.getSource().getServer());
@@ -234,27 +383,23 @@ public class ModCommands {
                 return 0;
             }
             
-            // Check if item is buyable
-            if (!ItemPricing.canBuy(item)) {
+            // Read the price once from the table that is charged; 0 means not buyable
+            long price = PriceQuote.get().getBuyPrice(item);
+            if (price <= 0) {
                 player.sendSystemMessage(Component.literal("§cThat item is not for sale!"));
                 return 0;
             }
-            
-            long price = ItemPricing.getBuyPrice(item);
             long totalCost = price * amount;
-            long playerMoney = PlayerDataManager.getMoney(player);
             
-            // Check if player can afford
-            if (playerMoney < totalCost) {
+            // Check and deduct in one step, then give items
+            if (!AccountService.tryDebit(player.getUUID(), totalCost, EconomyJournal.Reason.BUY)) {
                 player.sendSystemMessage(Component.literal(
-                    "§cNot enough money! Need §6$" + totalCost + " §c(you have §6$" + playerMoney + "§c)"
+                    "§cNot enough money! Need §6$" + totalCost + " §c(you have §6$" + PlayerDataManager.getMoney(player) + "§c)"
                 ));
                 return 0;
             }
-            
-            // Deduct money and give items
-            PlayerDataManager.addMoney(player, -totalCost);
             player.getInventory().add(new ItemStack(item, amount));
+            DemandTracker.recordPurchase(item, amount);
             
             String itemDisplayName = item.getName(item.getDefaultInstance()).getString();
             player.sendSystemMessage(Component.literal(
@@ -268,6 +413,126 @@ public class ModCommands {
         }
     }
     
+    /**
+     * /ah sell handler - list the held item
+     */
+    private static int auctionSellHeld(CommandSourceStack source, long price, int amount) {
+        try {
+            ServerPlayer player = source.getPlayerOrException();
+            ItemStack held = player.getMainHandItem();
+            if (held.isEmpty()) {
+                player.sendSystemMessage(Component.literal("§cYou're not holding anything!"));
+                return 0;
+            }
+            int quantity = amount == -1 ? held.getCount() : amount;
+            return AuctionHouse.placeOrder(player, held.getItem(), false, price, quantity) ? 1 : 0;
+        } catch (Exception e) {
+            source.sendFailure(Component.literal("§cError placing order"));
+            return 0;
+        }
+    }
+    
+    /**
+     * /ah buy handler
+     */
+    private static int auctionBuy(CommandSourceStack source, String itemName, long price, int amount) {
+        try {
+            ServerPlayer player = source.getPlayerOrException();
+            Item item = findItem(itemName);
+            if (item == null || item == Items.AIR) {
+                player.sendSystemMessage(Component.literal("§cUnknown item: " + itemName));
+                return 0;
+            }
+            return AuctionHouse.placeOrder(player, item, true, price, amount) ? 1 : 0;
+        } catch (Exception e) {
+            source.sendFailure(Component.literal("§cError placing order"));
+            return 0;
+        }
+    }
+    
+    /**
+     * Show the best price levels of an item's order book
+     */
+    private static void showOrderBook(CommandSourceStack source, String itemName) {
+        Item item = findItem(itemName);
+        if (item == null || item == Items.AIR) {
+            source.sendSystemMessage(Component.literal("§cUnknown item: " + itemName));
+            return;
+        }
+        String itemDisplayName = item.getName(item.getDefaultInstance()).getString();
+        OrderBook book = AuctionHouse.getBook(item);
+        if (book == null || book.isEmpty()) {
+            source.sendSystemMessage(Component.literal("§7No open orders for " + itemDisplayName + "."));
+            return;
+        }
+        source.sendSystemMessage(Component.literal("§6═══ Order Book: " + itemDisplayName + " ═══"));
+        source.sendSystemMessage(Component.literal("§cAsks (selling):"));
+        // Highest of the shown asks first, so the spread sits in the middle
+        List<Map.Entry<Long, ArrayDeque<OrderBook.Order>>> asks = book.getAsks().entrySet().stream()
+            .limit(AUCTION_LEVELS_SHOWN).toList();
+        for (int i = asks.size() - 1; i >= 0; i--) {
+            source.sendSystemMessage(Component.literal("  §c$%,d §7x §f%d".formatted(
+                asks.get(i).getKey(), OrderBook.levelQuantity(asks.get(i).getValue()))));
+        }
+        source.sendSystemMessage(Component.literal("§aBids (buying):"));
+        book.getBids().entrySet().stream().limit(AUCTION_LEVELS_SHOWN).forEach(level ->
+            source.sendSystemMessage(Component.literal("  §a$%,d §7x §f%d".formatted(
+                level.getKey(), OrderBook.levelQuantity(level.getValue())))));
+        source.sendSystemMessage(Component.literal("§6═══════════════════"));
+    }
+    
+    /**
+     * Show the player's open auction orders and uncollected items
+     */
+    private static void showOpenOrders(ServerPlayer player) {
+        List<OrderBook.Order> orders = AuctionHouse.getOrdersOf(player.getUUID());
+        player.sendSystemMessage(Component.literal("§6═══ Your Orders (" + orders.size() + "/" + AuctionHouse.MAX_OPEN_ORDERS + ") ═══"));
+        for (OrderBook.Order order : orders) {
+            player.sendSystemMessage(Component.literal("§f#%d %s §f%dx %s §7at §6$%,d".formatted(
+                order.id, order.buy ? "§aBUY" : "§cSELL", order.getRemaining(),
+                order.item.getName(order.item.getDefaultInstance()).getString(), order.price)));
+        }
+        int waiting = AuctionHouse.getStash(player.getUUID()).values().stream().mapToInt(Integer::intValue).sum();
+        if (waiting > 0) {
+            player.sendSystemMessage(Component.literal("§e" + waiting + " items waiting - §f/ah collect"));
+        }
+        long owed = AuctionHouse.getOwed(player.getUUID());
+        if (owed > 0) {
+            player.sendSystemMessage(Component.literal("§e§6$%,d §ein refunds waiting - §f/ah collect".formatted(owed)));
+        }
+        player.sendSystemMessage(Component.literal("§6═══════════════════"));
+    }
+    
+    /**
+     * Pay command handler
+     */
+    private static int payPlayer(CommandSourceStack source, ServerPlayer target, int amount) {
+        try {
+            ServerPlayer player = source.getPlayerOrException();
+            
+            AccountService.TransferResult result = AccountService.transfer(
+                player.getUUID(), target.getUUID(), amount, EconomyJournal.Reason.TRANSFER);
+            switch (result) {
+                case OK -> {
+                    player.sendSystemMessage(Component.literal(
+                        "§a✓ Sent §6$" + amount + " §ato §f" + target.getName().getString()));
+                    target.sendSystemMessage(Component.literal(
+                        "§a✓ Received §6$" + amount + " §afrom §f" + player.getName().getString()));
+                    return 1;
+                }
+                case INSUFFICIENT_FUNDS -> player.sendSystemMessage(Component.literal(
+                    "§cNot enough money! You have §6$" + PlayerDataManager.getMoney(player)));
+                case OVERFLOW -> player.sendSystemMessage(Component.literal(
+                    "§c" + target.getName().getString() + " can't hold any more money!"));
+                case SAME_ACCOUNT -> player.sendSystemMessage(Component.literal("§cYou can't pay yourself!"));
+            }
+            return 0;
+        } catch (Exception e) {
+            source.sendFailure(Component.literal("§cError processing payment"));
+            return 0;
+        }
+    }
+    
     /**
      * Sell item command handler
      */
@@ -292,7 +557,7 @@ public class ModCommands {
             int toSell = amount == -1 ? available : Math.min(amount, available);
             
             // Get sell price
-            long price = ItemPricing.getSellPrice(item);
+            long price = MarketManager.getEffectiveSellPrice(item);
             if (price <= 0) {
                 // Default sell price for items not in the list
                 price = 1;
@@ -302,8 +567,11 @@ public class ModCommands {
             
             // Remove items and add money
             removeItemFromInventory(player, item, toSell);
-            PlayerDataManager.addMoney(player, totalEarned);
-            PlayerDataManager.addToDailyEarnings(player, totalEarned);
+            DemandTracker.recordSale(item, toSell);
+            PlayerDataManager.edit(player, EconomyJournal.Reason.SELL, profile -> {
+                profile.addMoney(totalEarned);
+                profile.addDailyEarnings(totalEarned);
+            });
             
             String itemDisplayName = item.getName(item.getDefaultInstance()).getString();
             player.sendSystemMessage(Component.literal(
@@ -335,7 +603,7 @@ public class ModCommands {
             int toSell = amount == -1 ? available : Math.min(amount, available);
             
             // Get sell price
-            long price = ItemPricing.getSellPrice(item);
+            long price = MarketManager.getEffectiveSellPrice(item);
             if (price <= 0) {
                 price = 1; // Default price
             }
@@ -344,10 +612,13 @@ public class ModCommands {
             
             // Remove from hand
             heldItem.shrink(toSell);
+            DemandTracker.recordSale(item, toSell);
             
             // Add money
-            PlayerDataManager.addMoney(player, totalEarned);
-            PlayerDataManager.addToDailyEarnings(player, totalEarned);
+            PlayerDataManager.edit(player, EconomyJournal.Reason.SELL, profile -> {
+                profile.addMoney(totalEarned);
+                profile.addDailyEarnings(totalEarned);
+            });
             
             String itemDisplayName = item.getName(item.getDefaultInstance()).getString();
             player.sendSystemMessage(Component.literal(
@@ -370,19 +641,22 @@ public class ModCommands {
             
             long totalEarned = 0;
             int totalItems = 0;
+            // One table for the whole inventory, so every stack is priced from the same market state
+            PriceQuote quotes = PriceQuote.get();
             
             for (int i = 0; i < player.getInventory().getContainerSize(); i++) {
                 ItemStack stack = player.getInventory().getItem(i);
                 if (stack.isEmpty()) continue;
                 
                 Item item = stack.getItem();
-                long price = ItemPricing.getSellPrice(item);
+                long price = quotes.getSellPrice(item);
                 
                 if (price > 0) {
                     int count = stack.getCount();
                     totalEarned += price * count;
                     totalItems += count;
                     player.getInventory().setItem(i, ItemStack.EMPTY);
+                    DemandTracker.recordSale(item, count);
                 }
             }
             
@@ -391,8 +665,11 @@ public class ModCommands {
                 return 0;
             }
             
-            PlayerDataManager.addMoney(player, totalEarned);
-            PlayerDataManager.addToDailyEarnings(player, totalEarned);
+            long earned = totalEarned;
+            PlayerDataManager.edit(player, EconomyJournal.Reason.SELL_ALL, profile -> {
+                profile.addMoney(earned);
+                profile.addDailyEarnings(earned);
+            });
             
             player.sendSystemMessage(Component.literal(
                 "§a§l✓ SOLD ALL! §aSold " + totalItems + " items for §6$" + totalEarned
@@ -492,9 +769,171 @@ public class ModCommands {
         player.sendSystemMessage(Component.literal(
             "§a💰 On Sale: §f" + cheapItem + " §7(50% off buy)"
         ));
+        List<Item> movers = DemandTracker.getBiggestMovers(MARKET_MOVERS_SHOWN);
+        if (!movers.isEmpty()) {
+            player.sendSystemMessage(Component.literal("§eSupply & Demand:"));
+            for (Item item : movers) {
+                double multiplier = DemandTracker.getMultiplier(item);
+                String arrow = multiplier < 1.0 ? "§c▼" : "§a▲";
+                player.sendSystemMessage(Component.literal(String.format("  %s §f%s §7%.0f%% of base §8(sold %d, bought %d this hour)",
+                    arrow, item.getName(item.getDefaultInstance()).getString(), multiplier * 100,
+                    DemandTracker.getSoldLastHour(item), DemandTracker.getBoughtLastHour(item))));
+            }
+        }
         player.sendSystemMessage(Component.literal("§6═══════════════════"));
     }
     
+    /**
+     * Run a bulk storage operation in the background, reporting back on the server thread
+     */
+    private static int runStorageTool(CommandSourceStack source, StorageTool.Operation operation) {
+        MinecraftServer server = source.getServer();
+        String name = operation.name().toLowerCase();
+        boolean started = StorageTool.start(operation,
+            progress -> server.execute(() -> source.sendSystemMessage(Component.literal("§7[storage " + name + "] " + progress))),
+            report -> server.execute(() -> showStorageReport(source, operation, report)));
+        if (!started) {
+            source.sendSystemMessage(Component.literal("§cA storage operation is already running"));
+            return 0;
+        }
+        return 1;
+    }
+    
+    private static void showStorageReport(CommandSourceStack source, StorageTool.Operation operation, StorageTool.Report report) {
+        source.sendSystemMessage(Component.literal("§6═══ Storage " + operation.name().toLowerCase() + " ═══"));
+        source.sendSystemMessage(Component.literal("§eProfiles: §f" + report.profiles + " §7(" + report.bytes / 1024 + " KB)"));
+        StringBuilder formats = new StringBuilder();
+        report.formats.forEach((format, count) -> formats.append(" §f").append(format).append("§7=").append(count));
+        source.sendSystemMessage(Component.literal("§eFormats:" + formats));
+        source.sendSystemMessage(Component.literal("§eMoney Supply: §6$" + PlayerDataManager.formatMoney(report.moneySupply)
+            + " §7(richest §6$" + PlayerDataManager.formatMoney(report.richest) + "§7)"));
+        
+        source.sendSystemMessage(Component.literal("§eLevels:"));
+        report.levelHistogram.forEach((bucket, count) -> source.sendSystemMessage(Component.literal(
+            String.format("§7  %3d-%-3d §f%d", Math.max(1, bucket), bucket + 9, count))));
+        
+        if (operation == StorageTool.Operation.MIGRATE) {
+            source.sendSystemMessage(Component.literal("§eConverted to " + ProfileCodecs.getActive().name() + ": §f" + report.converted
+                + " §7(skipped loaded §f" + report.skippedLoaded + "§7)"));
+        }
+        if (report.failed > 0 || report.invalid > 0) {
+            source.sendSystemMessage(Component.literal("§cUnreadable: " + report.failed + " §7| §cInconsistent: " + report.invalid));
+            for (String problem : report.problems) {
+                source.sendSystemMessage(Component.literal("§7  " + problem));
+            }
+        } else if (operation == StorageTool.Operation.VERIFY) {
+            source.sendSystemMessage(Component.literal("§a✓ All profiles are readable and consistent"));
+        }
+    }
+    
+    /**
+     * Compare size and speed of the player data codecs on a background thread
+     * Uses the caller's own profile as the sample, or a typical one from the console.
+     */
+    private static void benchmarkCodecs(CommandSourceStack source) {
+        ServerPlayer player = source.getPlayer();
+        PlayerProfile sample = player != null ? PlayerDataManager.getProfile(player).copy() : new PlayerProfile();
+        if (player == null) {
+            sample.setMoney(123_456);
+            sample.setRpgLevel(42);
+            sample.setRpgXp(1_234);
+            sample.setLastLogin(System.currentTimeMillis());
+        }
+        
+        source.sendSystemMessage(Component.literal("§7Benchmarking codecs..."));
+        MinecraftServer server = source.getServer();
+        CompletableFuture.runAsync(() -> {
+            try {
+                List<ProfileCodecs.BenchmarkResult> results = ProfileCodecs.benchmark(sample, CODEC_BENCH_ITERATIONS);
+                server.execute(() -> {
+                    source.sendSystemMessage(Component.literal("§6═══ Codec Benchmark ═══"));
+                    for (ProfileCodecs.BenchmarkResult result : results) {
+                        boolean active = result.codec().equals(ProfileCodecs.getActive().name());
+                        source.sendSystemMessage(Component.literal(String.format(
+                            "§e%s%s: §f%d bytes §7| encode §f%.2fµs §7| decode §f%.2fµs",
+                            result.codec(), active ? " §a(active)§e" : "", result.bytes(),
+                            result.encodeMicros(), result.decodeMicros())));
+                    }
+                });
+            } catch (Exception e) {
+                VanillaPlusRpg.LOGGER.error("Codec benchmark failed", e);
+                server.execute(() -> source.sendSystemMessage(Component.literal("§cCodec benchmark failed: " + e.getMessage())));
+            }
+        });
+    }
+    
+    /**
+     * Re-read shop.json and the override file off the tick thread, apply on it and report what changed
+     */
+    private static void reloadShop(CommandSourceStack source) {
+        source.sendSystemMessage(Component.literal("§7Reloading " + ShopConfig.OVERRIDE_FILE + "..."));
+        MinecraftServer server = source.getServer();
+        CompletableFuture.runAsync(() -> {
+            try {
+                ShopConfig.PendingReload pending = ShopConfig.prepareReload();
+                server.execute(() -> {
+                    ShopConfig.ReloadResult result = ShopConfig.applyReload(pending);
+                    if (!result.applied()) {
+                        source.sendSystemMessage(Component.literal("§cShop not reloaded, " + result.errors().size() + " problem(s):"));
+                        sendLimited(source, result.errors(), "§c- ");
+                        return;
+                    }
+                    source.sendSuccess(() -> Component.literal("§aShop reloaded: §f" + result.changes().size()
+                        + " §aprice change(s), catalog v" + PriceCatalog.get().getVersion()), true);
+                    sendLimited(source, result.changes(), "§7- §f");
+                });
+            } catch (Exception e) {
+                VanillaPlusRpg.LOGGER.error("Shop reload failed", e);
+                server.execute(() -> source.sendSystemMessage(Component.literal("§cShop reload failed: " + e.getMessage())));
+            }
+        });
+    }
+    
+    private static void sendLimited(CommandSourceStack source, List<String> lines, String prefix) {
+        for (int i = 0; i < Math.min(lines.size(), MAX_LISTED_LINES); i++) {
+            source.sendSystemMessage(Component.literal(prefix + lines.get(i)));
+        }
+        if (lines.size() > MAX_LISTED_LINES) {
+            source.sendSystemMessage(Component.literal("§7... and " + (lines.size() - MAX_LISTED_LINES) + " more"));
+        }
+    }
+    
+    /**
+     * Show player data write-behind stats (admin)
+     */
+    private static void showPersistenceStats(CommandSourceStack source) {
+        source.sendSystemMessage(Component.literal("§6═══ Player Data Saves ═══"));
+        source.sendSystemMessage(Component.literal("§eStorage: §f" + PlayerDataManager.getStore().describe()
+            + " §7codec §f" + ProfileCodecs.getActive().name()));
+        source.sendSystemMessage(Component.literal("§eFlushes: §f" + PlayerDataManager.getFlushCount()));
+        source.sendSystemMessage(Component.literal("§eSnapshots Queued: §f" + PlayerDataManager.getDiskWrites()));
+        source.sendSystemMessage(Component.literal("§eCoalesced Writes: §f" + PlayerDataManager.getCoalescedWrites()));
+        source.sendSystemMessage(Component.literal("§ePending (dirty): §f" + PlayerDataManager.getDirtyCount()));
+        source.sendSystemMessage(Component.literal("§eWriter Queue: §f" + PersistenceExecutor.getQueueDepth()));
+        source.sendSystemMessage(Component.literal("§eEconomy Journal: §f" + EconomyJournal.getRecordsWritten()
+            + " §7records in §f" + EconomyJournal.getGroupCommits() + " §7group commits"));
+        source.sendSystemMessage(Component.literal("§eBatched Rewards: §f" + RewardAccumulator.getRewardsAdded()
+            + " §7paid in §f" + RewardAccumulator.getFlushes() + " §7commits"));
+        PlacedBlockTracker.MemoryStats placed = PlacedBlockTracker.getMemoryStats();
+        source.sendSystemMessage(Component.literal("§ePlaced Blocks: §f" + placed.sections() + " §7sections in §f" + placed.chunks()
+            + " §7chunks (§f" + (placed.bytes() / 1024) + " KB§7), marked §f" + PlacedBlockTracker.getMarked()
+            + "§7, cleared §f" + PlacedBlockTracker.getCleared() + "§7, moved §f" + PlacedBlockTracker.getMoved()
+            + "§7, rewards denied §f" + PlacedBlockTracker.getRewardsDenied()));
+        ProfileCache cache = PlayerDataManager.getProfileCache();
+        source.sendSystemMessage(Component.literal("§eProfile Cache: §f" + cache.size() + "/" + cache.getMaxSize()
+            + " §7(online §f" + cache.getPinnedCount() + "§7)"));
+        source.sendSystemMessage(Component.literal("§eCache Hits: §f" + cache.getHits() + " §7misses §f" + cache.getMisses()
+            + " §7evictions §f" + cache.getEvictions() + " §7(" + String.format("%.1f", cache.getHitRate() * 100) + "% hit rate)"));
+        source.sendSystemMessage(Component.literal("§eLogin Preloads: §f" + ProfilePreloader.getStarted()
+            + " §7(ready §f" + ProfilePreloader.getHits() + "§7, late §f" + ProfilePreloader.getLate()
+            + "§7, none §f" + ProfilePreloader.getMissing() + "§7, expired §f" + ProfilePreloader.getExpired() + "§7)"));
+        source.sendSystemMessage(Component.literal("§eWrites Done: §f%d §7(%d failed)".formatted(
+            PersistenceExecutor.getWritesCompleted(), PersistenceExecutor.getWritesFailed())));
+        source.sendSystemMessage(Component.literal("§eWrite Latency: §f%.2fms avg §7/ §f%.2fms max".formatted(
+            PersistenceExecutor.getAverageWriteMillis(), PersistenceExecutor.getMaxWriteMillis())));
+        source.sendSystemMessage(Component.literal("§6═══════════════════"));
+    }
+    
     /**
      * Show daily earnings report
      */
@@ -514,6 +953,42 @@ public class ModCommands {
                 "§7Use §f/sell §7to sell items!"
             ));
         }
+        player.sendSystemMessage(Component.literal("§7See §f/daily history §7for the last " + PlayerProfile.HISTORY_DAYS + " days"));
+        player.sendSystemMessage(Component.literal("§6═══════════════════"));
+    }
+    
+    /**
+     * Show the last week day by day, plus weekly and monthly totals and the trend
+     */
+    private static void showEarningsHistory(ServerPlayer player) {
+        long[] days = PlayerDataManager.getEarningsHistory(player);
+        
+        long week = 0;
+        long previousWeek = 0;
+        long month = 0;
+        long best = 0;
+        for (int i = 0; i < days.length; i++) {
+            if (i < 7) week += days[i];
+            else if (i < 14) previousWeek += days[i];
+            month += days[i];
+            best = Math.max(best, days[i]);
+        }
+        
+        player.sendSystemMessage(Component.literal("§6═══ Earnings History ═══"));
+        for (int i = 0; i < 7; i++) {
+            String label = i == 0 ? "Today" : i == 1 ? "Yesterday" : i + " days ago";
+            int bar = best > 0 ? (int) (days[i] * HISTORY_BAR_WIDTH / best) : 0;
+            player.sendSystemMessage(Component.literal("§e%-10s §a%s§8%s §f$%,d".formatted(label,
+                "|".repeat(bar), "|".repeat(HISTORY_BAR_WIDTH - bar), days[i])));
+        }
+        player.sendSystemMessage(Component.literal("§eLast 7 days: §a$%,d §7(avg $%,d/day)".formatted(week, week / 7)));
+        player.sendSystemMessage(Component.literal("§eLast %d days: §a$%,d §7(avg $%,d/day, best $%,d)".formatted(
+            days.length, month, month / days.length, best)));
+        if (previousWeek > 0) {
+            double change = (week - previousWeek) * 100.0 / previousWeek;
+            player.sendSystemMessage(Component.literal("§eTrend: %s%+.0f%% §7vs the week before".formatted(
+                change >= 0 ? "§a▲ " : "§c▼ ", change)));
+        }
         player.sendSystemMessage(Component.literal("§6═══════════════════"));
     }
 }
@@ -0,0 +1,134 @@
+package com.vanillaplus.rpg.config;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import net.fabricmc.loader.api.FabricLoader;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * General mod configuration
+ * Reads config/vanillaplusrpg.json and writes it back so new options show up with their defaults
+ */
+public class RpgConfig {
+    private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
+    private static final String FILE_NAME = "vanillaplusrpg.json";
+
+    private static RpgConfig instance = new RpgConfig();
+
+    // ========== PERSISTENCE ==========
+
+    // true = mark profiles dirty and flush in batches, false = write on every change
+    public boolean writeBehind = true;
+
+    // How often dirty player profiles are flushed to disk (200 ticks = 10 seconds)
+    public int saveIntervalTicks = 200;
+
+    // "file" = one .dat per player, "segmented" = append-only segment files
+    // Switching migrates existing data on the next start
+    public String storageBackend = "file";
+
+    // "nbt" = gzip compressed NBT (original format), "binary" = compact varint layout
+    // Existing data in either format is always readable, files convert on their next save
+    public String profileCodec = "nbt";
+
+    // Loaded profiles kept in memory; online players are always kept, offline ones are evicted
+    // least-recently-used first above this size or after being idle for the given minutes
+    public int profileCacheSize = 1000;
+    public int profileCacheExpireMinutes = 15;
+
+    // ========== REWARDS ==========
+
+    // Block and kill rewards are collected per player and paid out together this many ticks
+    // after the first one (1 = end of the same tick)
+    public int rewardFlushTicks = 1;
+
+    // ========== MARKET ==========
+
+    // Prices follow supply and demand: selling lowers an item's price, buying raises it
+    public boolean dynamicPricing = true;
+
+    // Net value of an item sold over the last hour that halves its price (bought doubles it)
+    public long demandHalfPriceValue = 50_000;
+
+    // Items picked each day for 2x sell price (hot) and half buy price (cheap)
+    public int marketHotSlots = 1;
+    public int marketCheapSlots = 1;
+
+    // Days before a hot or cheap item can be picked again
+    public int marketNoRepeatDays = 3;
+
+    // Chance weights for the daily picks, by item id ("minecraft:diamond") or item tag ("#minecraft:logs")
+    // Unlisted items weigh 1, 0 keeps an item out of the rotation
+    public Map<String, Double> marketWeights = new LinkedHashMap<>();
+
+    /**
+     * Get the active configuration
+     */
+    public static RpgConfig get() {
+        return instance;
+    }
+
+    /**
+     * Load the configuration file, creating it with defaults if missing
+     */
+    public static void init() {
+        Path path = FabricLoader.getInstance().getConfigDir().resolve(FILE_NAME);
+
+        if (Files.exists(path)) {
+            try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                RpgConfig loaded = GSON.fromJson(reader, RpgConfig.class);
+                if (loaded != null) {
+                    instance = loaded;
+                }
+            } catch (Exception e) {
+                VanillaPlusRpg.LOGGER.error("Failed to read {}, using defaults", FILE_NAME, e);
+            }
+        }
+
+        instance.validate();
+
+        // Write back so newly added options appear in the file
+        try {
+            Files.createDirectories(path.getParent());
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+                GSON.toJson(instance, writer);
+            }
+        } catch (Exception e) {
+            VanillaPlusRpg.LOGGER.error("Failed to write {}", FILE_NAME, e);
+        }
+    }
+
+    /**
+     * Clamp values that would break the mod if set out of range
+     */
+    private void validate() {
+        saveIntervalTicks = Math.max(20, saveIntervalTicks);
+        profileCacheSize = Math.max(16, profileCacheSize);
+        profileCacheExpireMinutes = Math.max(1, profileCacheExpireMinutes);
+        rewardFlushTicks = Math.max(1, Math.min(100, rewardFlushTicks));
+        demandHalfPriceValue = Math.max(1_000, demandHalfPriceValue);
+        marketHotSlots = Math.max(0, Math.min(16, marketHotSlots));
+        marketCheapSlots = Math.max(0, Math.min(16, marketCheapSlots));
+        marketNoRepeatDays = Math.max(0, marketNoRepeatDays);
+        if (marketWeights == null) {
+            marketWeights = new LinkedHashMap<>();
+        }
+        marketWeights.values().removeIf(weight -> weight == null || weight < 0 || weight.isNaN());
+        if (!"file".equals(storageBackend) && !"segmented".equals(storageBackend)) {
+            VanillaPlusRpg.LOGGER.warn("Unknown storageBackend '{}', using 'file'", storageBackend);
+            storageBackend = "file";
+        }
+        if (!"nbt".equals(profileCodec) && !"binary".equals(profileCodec)) {
+            VanillaPlusRpg.LOGGER.warn("Unknown profileCodec '{}', using 'nbt'", profileCodec);
+            profileCodec = "nbt";
+        }
+    }
+}
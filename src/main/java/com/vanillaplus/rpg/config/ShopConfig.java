@@ -3,24 +3,43 @@ package com.vanillaplus.rpg.config;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.JsonParseException;
 import com.vanillaplus.rpg.VanillaPlusRpg;
+import com.vanillaplus.rpg.economy.PriceCatalog;
+import com.vanillaplus.rpg.economy.PriceQuote;
+import net.fabricmc.loader.api.FabricLoader;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.resources.Identifier;
 import net.minecraft.world.item.Item;
 
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Shop configuration loader
- * Reads shop.json and creates a HashMap<Item, ShopEntry> for fast lookup
+ * Reads shop.json and creates a HashMap<Item, ShopEntry>
+ * Entries override the ItemPricing defaults in PriceCatalog, which is what the game reads
+ * 
+ * Server owners can override entries in config/vanillaplusrpg_shop.json (same format); it is
+ * read when the server starts, once every mod's items are registered, and then watched and
+ * reloaded while the server runs, or on /rpgadmin reloadshop.
  */
 public class ShopConfig {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
-    private static final Map<Item, ShopEntry> SHOP_DATA = new HashMap<>();
+    public static final String OVERRIDE_FILE = "vanillaplusrpg_shop.json";
+    
+    // Read-only snapshot, replaced as a whole when the config is loaded
+    private static volatile Map<Item, ShopEntry> shopData = Collections.emptyMap();
     
     /**
      * Shop entry containing buy/sell prices and black market cost
@@ -44,92 +63,200 @@ public class ShopConfig {
     }
     
     /**
-     * Initialize the shop configuration
+     * Outcome of a reload: whether it was applied, validation errors, and the price changes
+     */
+    public record ReloadResult(boolean applied, List<String> errors, List<String> changes) {}
+    
+    /**
+     * Files read by prepareReload(), waiting to be applied on the server thread
+     */
+    public record PendingReload(Map<Item, ShopEntry> entries, List<String> errors) {}
+    
+    /**
+     * Initialize the shop configuration from the bundled shop.json
+     * The override file is read later by loadOverride(), when modded items can be resolved.
      */
     public static void init() {
-        loadShopConfig();
-        VanillaPlusRpg.LOGGER.info("Loaded {} shop entries", SHOP_DATA.size());
+        Map<Item, ShopEntry> loaded = new HashMap<>();
+        loadShopConfig(loaded);
+        shopData = Collections.unmodifiableMap(loaded);
+        VanillaPlusRpg.LOGGER.info("Loaded {} shop entries", loaded.size());
+    }
+    
+    /**
+     * Layer the override file on top of shop.json (server starting, before the price catalog is built)
+     * An invalid override is logged and skipped, leaving the bundled prices.
+     */
+    public static void loadOverride() {
+        PendingReload pending = prepareReload();
+        for (String error : pending.errors()) {
+            VanillaPlusRpg.LOGGER.error("Ignoring {}: {}", OVERRIDE_FILE, error);
+        }
+        if (pending.errors().isEmpty()) {
+            shopData = Collections.unmodifiableMap(pending.entries());
+            VanillaPlusRpg.LOGGER.info("Loaded {} shop entries with {}", pending.entries().size(), OVERRIDE_FILE);
+        }
+    }
+    
+    /**
+     * Re-read shop.json and the override file
+     * Safe to call from any thread; hand the result to applyReload() on the server thread.
+     */
+    public static PendingReload prepareReload() {
+        List<String> errors = new ArrayList<>();
+        Map<Item, ShopEntry> loaded = load(errors);
+        return new PendingReload(loaded, errors);
+    }
+    
+    /**
+     * Publish a prepared reload as the new price catalog if it is valid
+     * Server thread only - the price quote is rebuilt from the demand state, which lives there.
+     * An invalid override leaves the current prices untouched.
+     */
+    public static ReloadResult applyReload(PendingReload pending) {
+        if (!pending.errors().isEmpty()) {
+            return new ReloadResult(false, pending.errors(), List.of());
+        }
+        
+        PriceCatalog before = PriceCatalog.get();
+        shopData = Collections.unmodifiableMap(pending.entries());
+        PriceCatalog.rebuild();
+        PriceQuote.rebuild();
+        return new ReloadResult(true, pending.errors(), PriceCatalog.get().diff(before));
+    }
+    
+    /**
+     * Path of the server owner's override file (config/vanillaplusrpg_shop.json)
+     */
+    public static Path getOverridePath() {
+        return FabricLoader.getInstance().getConfigDir().resolve(OVERRIDE_FILE);
+    }
+    
+    /**
+     * Bundled shop.json with the override file's entries on top
+     * The override is only applied if every entry in it is valid.
+     */
+    private static Map<Item, ShopEntry> load(List<String> errors) {
+        Map<Item, ShopEntry> entries = new HashMap<>();
+        loadShopConfig(entries);
+        
+        Path override = getOverridePath();
+        if (Files.exists(override)) {
+            Map<Item, ShopEntry> overrides = new HashMap<>();
+            try (Reader reader = Files.newBufferedReader(override, StandardCharsets.UTF_8)) {
+                readEntries(reader, overrides, errors);
+            } catch (Exception e) {
+                errors.add("could not read file: " + e.getMessage());
+            }
+            if (errors.isEmpty()) {
+                entries.putAll(overrides);
+            }
+        }
+        return entries;
+    }
+    
+    /**
+     * Parse a shop JSON object into entries, collecting problems instead of throwing
+     */
+    private static void readEntries(Reader reader, Map<Item, ShopEntry> entries, List<String> errors) {
+        Type type = new TypeToken<Map<String, ShopEntry>>(){}.getType();
+        Map<String, ShopEntry> rawData;
+        try {
+            rawData = GSON.fromJson(reader, type);
+        } catch (JsonParseException e) {
+            errors.add("invalid JSON: " + e.getMessage());
+            return;
+        }
+        if (rawData == null) return;
+        
+        // Convert string keys to Item objects
+        for (Map.Entry<String, ShopEntry> entry : rawData.entrySet()) {
+            String itemId = entry.getKey();
+            ShopEntry shopEntry = entry.getValue();
+            
+            // 1.21.11: Use Identifier.tryParse - defaults to the minecraft namespace
+            Identifier id = Identifier.tryParse(itemId);
+            if (id == null || !BuiltInRegistries.ITEM.containsKey(id)) {
+                errors.add("unknown item '" + itemId + "'");
+                continue;
+            }
+            if (shopEntry == null) {
+                errors.add(itemId + ": empty entry");
+                continue;
+            }
+            if (shopEntry.blackMarketCost < 0) {
+                errors.add(itemId + ": negative blackMarketCost");
+                continue;
+            }
+            // Selling for more than the buy price would let players print money
+            if (shopEntry.isBuyable() && shopEntry.isSellable() && shopEntry.sell > shopEntry.buy) {
+                errors.add(itemId + ": sell price " + shopEntry.sell + " is above buy price " + shopEntry.buy);
+                continue;
+            }
+            entries.put(BuiltInRegistries.ITEM.getValue(id), shopEntry);
+        }
     }
     
     /**
      * Load shop configuration from JSON
      */
-    private static void loadShopConfig() {
+    private static void loadShopConfig(Map<Item, ShopEntry> entries) {
         try {
             // Load from resources
             InputStream stream = ShopConfig.class.getResourceAsStream("/data/vanillaplusrpg/shop.json");
             if (stream == null) {
                 VanillaPlusRpg.LOGGER.warn("Could not find shop.json, using defaults");
-                loadDefaults();
+                loadDefaults(entries);
                 return;
             }
             
-            InputStreamReader reader = new InputStreamReader(stream);
-            Type type = new TypeToken<Map<String, ShopEntry>>(){}.getType();
-            Map<String, ShopEntry> rawData = GSON.fromJson(reader, type);
-            reader.close();
-            
-            // Convert string keys to Item objects
-            for (Map.Entry<String, ShopEntry> entry : rawData.entrySet()) {
-                String itemId = entry.getKey();
-                
-                // 1.21.11: Use Identifier.fromNamespaceAndPath() or .of()
-                Identifier id;
-                if (itemId.contains(":")) {
-                    String[] parts = itemId.split(":");
-                    id = Identifier.fromNamespaceAndPath(parts[0], parts[1]);
-                } else {
-                    // Default to minecraft namespace
-                    id = Identifier.fromNamespaceAndPath("minecraft", itemId);
-                }
-                
-                Item item = BuiltInRegistries.ITEM.getValue(id);
-                if (item != null) {
-                    SHOP_DATA.put(item, entry.getValue());
-                } else {
-                    VanillaPlusRpg.LOGGER.warn("Unknown item in shop.json: {}", itemId);
-                }
+            List<String> problems = new ArrayList<>();
+            try (Reader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+                readEntries(reader, entries, problems);
+            }
+            for (String problem : problems) {
+                VanillaPlusRpg.LOGGER.warn("Skipping shop.json entry: {}", problem);
             }
             
         } catch (Exception e) {
             VanillaPlusRpg.LOGGER.error("Failed to load shop.json", e);
-            loadDefaults();
+            loadDefaults(entries);
         }
     }
     
     /**
      * Load default shop entries if JSON fails
      */
-    private static void loadDefaults() {
+    private static void loadDefaults(Map<Item, ShopEntry> entries) {
         // Diamond
         ShopEntry diamond = new ShopEntry();
         diamond.buy = 500;
         diamond.sell = 100;
-        SHOP_DATA.put(net.minecraft.world.item.Items.DIAMOND, diamond);
+        entries.put(net.minecraft.world.item.Items.DIAMOND, diamond);
         
         // Emerald
         ShopEntry emerald = new ShopEntry();
         emerald.buy = 200;
         emerald.sell = 40;
-        SHOP_DATA.put(net.minecraft.world.item.Items.EMERALD, emerald);
+        entries.put(net.minecraft.world.item.Items.EMERALD, emerald);
         
         // Gold Ingot
         ShopEntry gold = new ShopEntry();
         gold.buy = 50;
         gold.sell = 10;
-        SHOP_DATA.put(net.minecraft.world.item.Items.GOLD_INGOT, gold);
+        entries.put(net.minecraft.world.item.Items.GOLD_INGOT, gold);
         
         // Iron Ingot
         ShopEntry iron = new ShopEntry();
         iron.buy = 25;
         iron.sell = 5;
-        SHOP_DATA.put(net.minecraft.world.item.Items.IRON_INGOT, iron);
+        entries.put(net.minecraft.world.item.Items.IRON_INGOT, iron);
         
         // Cobblestone
         ShopEntry cobble = new ShopEntry();
         cobble.buy = 5;
         cobble.sell = 1;
-        SHOP_DATA.put(net.minecraft.world.item.Items.COBBLESTONE, cobble);
+        entries.put(net.minecraft.world.item.Items.COBBLESTONE, cobble);
     }
     
     /**
@@ -137,7 +264,7 @@ public class ShopConfig {
      * @return buy price or -1 if not buyable
      */
     public static long getBuyPrice(Item item) {
-        ShopEntry entry = SHOP_DATA.get(item);
+        ShopEntry entry = shopData.get(item);
         return entry != null ? entry.buy : -1;
     }
     
@@ -146,7 +273,7 @@ public class ShopConfig {
      * @return sell price or 0 if not sellable
      */
     public static long getSellPrice(Item item) {
-        ShopEntry entry = SHOP_DATA.get(item);
+        ShopEntry entry = shopData.get(item);
         return entry != null ? entry.sell : 0;
     }
     
@@ -155,7 +282,7 @@ public class ShopConfig {
      * @return level cost or 0 if not a black market item
      */
     public static int getBlackMarketCost(Item item) {
-        ShopEntry entry = SHOP_DATA.get(item);
+        ShopEntry entry = shopData.get(item);
         return entry != null ? entry.blackMarketCost : 0;
     }
     
@@ -163,28 +290,28 @@ public class ShopConfig {
      * Check if an item is in the shop
      */
     public static boolean isInShop(Item item) {
-        return SHOP_DATA.containsKey(item);
+        return shopData.containsKey(item);
     }
     
     /**
      * Check if an item is a black market item
      */
     public static boolean isBlackMarket(Item item) {
-        ShopEntry entry = SHOP_DATA.get(item);
+        ShopEntry entry = shopData.get(item);
         return entry != null && entry.isBlackMarket();
     }
     
     /**
-     * Get all shop entries
+     * Get all shop entries (read-only snapshot, no copy)
      */
     public static Map<Item, ShopEntry> getAllEntries() {
-        return new HashMap<>(SHOP_DATA);
+        return shopData;
     }
     
     /**
      * Get the shop entry for an item
      */
     public static ShopEntry getEntry(Item item) {
-        return SHOP_DATA.get(item);
+        return shopData.get(item);
     }
 }
@@ -0,0 +1,131 @@
+package com.vanillaplus.rpg.config;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import net.minecraft.server.MinecraftServer;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the shop override file when it changes on disk
+ *
+ * A daemon thread watches the config directory. Editors often write a file in several steps, so
+ * changes are collected until the file has been quiet for a moment and then reloaded once. The
+ * files are read on this thread; the new catalog is published on the server thread.
+ */
+public class ShopConfigWatcher {
+    // Wait this long after the last change before reloading
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private static WatchService watchService;
+    private static Thread thread;
+    private static volatile MinecraftServer server;
+
+    /**
+     * Start watching (call on server started)
+     */
+    public static synchronized void start(MinecraftServer minecraftServer) {
+        if (thread != null) return;
+        server = minecraftServer;
+        Path file = ShopConfig.getOverridePath();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY,
+                    StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            VanillaPlusRpg.LOGGER.warn("Could not watch {} for changes, use /rpgadmin reloadshop instead", file, e);
+            watchService = null;
+            return;
+        }
+
+        WatchService service = watchService;
+        thread = new Thread(() -> run(service, file.getFileName()), "VanillaPlusRpg-ShopWatcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stop watching (call on server stopping)
+     */
+    public static synchronized void stop() {
+        if (watchService == null) return;
+        try {
+            // Wakes the thread with ClosedWatchServiceException
+            watchService.close();
+        } catch (IOException ignored) {
+        }
+        watchService = null;
+        thread = null;
+        server = null;
+    }
+
+    private static void run(WatchService service, Path fileName) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = collect(key, fileName);
+                // Keep collecting until the directory has been quiet for the debounce time
+                while ((key = service.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed |= collect(key, fileName);
+                }
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            // Stopped
+        }
+    }
+
+    private static boolean collect(WatchKey key, Path fileName) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            // OVERFLOW has no context - events were lost, so assume the file may have changed
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || fileName.equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+
+    private static void reload() {
+        MinecraftServer target = server;
+        if (target == null) return;
+        ShopConfig.PendingReload pending;
+        try {
+            pending = ShopConfig.prepareReload();
+        } catch (Exception e) {
+            VanillaPlusRpg.LOGGER.error("Failed to reload {}", ShopConfig.OVERRIDE_FILE, e);
+            return;
+        }
+        target.execute(() -> apply(pending));
+    }
+
+    private static void apply(ShopConfig.PendingReload pending) {
+        try {
+            ShopConfig.ReloadResult result = ShopConfig.applyReload(pending);
+            if (!result.applied()) {
+                for (String error : result.errors()) {
+                    VanillaPlusRpg.LOGGER.error("Not reloading {}: {}", ShopConfig.OVERRIDE_FILE, error);
+                }
+                return;
+            }
+            VanillaPlusRpg.LOGGER.info("Reloaded {}: {} price changes", ShopConfig.OVERRIDE_FILE, result.changes().size());
+            for (String change : result.changes()) {
+                VanillaPlusRpg.LOGGER.info("  {}", change);
+            }
+        } catch (Exception e) {
+            VanillaPlusRpg.LOGGER.error("Failed to reload {}", ShopConfig.OVERRIDE_FILE, e);
+        }
+    }
+}
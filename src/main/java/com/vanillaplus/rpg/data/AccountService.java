@@ -0,0 +1,140 @@
+package com.vanillaplus.rpg.data;
+
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Balance operations that are safe to call from any thread
+ *
+ * Money lives in the player's PlayerProfile like everything else. Each account maps to one of a
+ * fixed set of lock stripes; every balance change, profile commit, cache load and save snapshot
+ * for that account happens under its stripe, so a network or background thread can debit a
+ * player while the server thread is editing the same profile. Changes go through the normal
+ * commit path: they are journaled, marked dirty and saved like any other edit.
+ */
+public class AccountService {
+    // Power of two so the stripe is a mask of the hash
+    private static final int STRIPES = 64;
+    private static final ReentrantLock[] LOCKS = new ReentrantLock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            LOCKS[i] = new ReentrantLock();
+        }
+    }
+
+    public enum TransferResult {
+        OK,
+        INSUFFICIENT_FUNDS,
+        // The receiver's balance would pass Long.MAX_VALUE
+        OVERFLOW,
+        SAME_ACCOUNT
+    }
+
+    private static int stripeOf(UUID uuid) {
+        int hash = uuid.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * The lock guarding an account's profile (reentrant, so it can be held across edits)
+     */
+    static ReentrantLock lockFor(UUID uuid) {
+        return LOCKS[stripeOf(uuid)];
+    }
+
+    /**
+     * Wait for every commit that is running right now to finish (takes each stripe in turn)
+     */
+    static void awaitCommits() {
+        for (ReentrantLock lock : LOCKS) {
+            lock.lock();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current balance, online or offline
+     */
+    public static long getBalance(UUID uuid) {
+        ReentrantLock lock = lockFor(uuid);
+        lock.lock();
+        try {
+            return PlayerDataManager.getProfile(uuid).getMoney();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Add money to an account
+     * @return false if the balance would overflow (nothing is changed)
+     */
+    public static boolean credit(UUID uuid, long amount, EconomyJournal.Reason reason) {
+        requirePositive(amount);
+        ReentrantLock lock = lockFor(uuid);
+        lock.lock();
+        try {
+            if (PlayerDataManager.getProfile(uuid).getMoney() > Long.MAX_VALUE - amount) {
+                return false;
+            }
+            PlayerDataManager.edit(uuid, reason, profile -> profile.addMoney(amount));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take money from an account if the balance covers it
+     * @return false if the balance is too low (nothing is changed)
+     */
+    public static boolean tryDebit(UUID uuid, long amount, EconomyJournal.Reason reason) {
+        requirePositive(amount);
+        ReentrantLock lock = lockFor(uuid);
+        lock.lock();
+        try {
+            if (PlayerDataManager.getProfile(uuid).getMoney() < amount) {
+                return false;
+            }
+            PlayerDataManager.edit(uuid, reason, profile -> profile.addMoney(-amount));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Move money between two accounts; either both balances change or neither does
+     */
+    public static TransferResult transfer(UUID from, UUID to, long amount, EconomyJournal.Reason reason) {
+        requirePositive(amount);
+        if (from.equals(to)) return TransferResult.SAME_ACCOUNT;
+
+        // Always lock the lower stripe first so two opposite transfers can't deadlock
+        int first = Math.min(stripeOf(from), stripeOf(to));
+        int second = Math.max(stripeOf(from), stripeOf(to));
+        LOCKS[first].lock();
+        LOCKS[second].lock(); // Reentrant - fine when both accounts share a stripe
+        try {
+            if (PlayerDataManager.getProfile(from).getMoney() < amount) {
+                return TransferResult.INSUFFICIENT_FUNDS;
+            }
+            if (PlayerDataManager.getProfile(to).getMoney() > Long.MAX_VALUE - amount) {
+                return TransferResult.OVERFLOW;
+            }
+            PlayerDataManager.edit(from, reason, profile -> profile.addMoney(-amount));
+            PlayerDataManager.edit(to, reason, profile -> profile.addMoney(amount));
+            return TransferResult.OK;
+        } finally {
+            LOCKS[second].unlock();
+            LOCKS[first].unlock();
+        }
+    }
+
+    private static void requirePositive(long amount) {
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Amount must be positive: " + amount);
+        }
+    }
+}
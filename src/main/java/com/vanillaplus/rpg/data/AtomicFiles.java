@@ -0,0 +1,58 @@
+package com.vanillaplus.rpg.data;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Crash-safe replacement of small files (player files, index checkpoint, market, demand)
+ *
+ * Write a temp file next to the target, fsync it, then rename it over the target, so a crash
+ * or power loss leaves either the old file or the new one.
+ */
+public final class AtomicFiles {
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private AtomicFiles() {}
+
+    /**
+     * Replace the file now, on the calling thread
+     */
+    public static void write(Path target, byte[] data) throws IOException {
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Replace the file on the persistence thread, after the player data writes queued before it
+     */
+    public static void writeInBackground(Path target, byte[] data) {
+        PersistenceExecutor.runAfterQueuedWrites(() -> {
+            try {
+                write(target, data);
+            } catch (IOException e) {
+                VanillaPlusRpg.LOGGER.error("Failed to save {}", target.getFileName(), e);
+            }
+        });
+    }
+}
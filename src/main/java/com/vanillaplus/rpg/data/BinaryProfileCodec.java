@@ -0,0 +1,164 @@
+package com.vanillaplus.rpg.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * Compact fixed-layout binary format
+ *
+ * Layout: 'V' 'P' 'B' version, then varints in a fixed order:
+ * money, rpgLevel, rpgXp, dailyEarnings (zigzag), lastLogin, skillPoints, journalSeq,
+ * skill count + one level per skill (Skill ordinal order), earnings day + history count + one
+ * zigzag value per day (since version 2), and a CRC32 of everything before it.
+ * A typical profile is ~100-150 bytes (~60 for the fields, 1-3 per day of earnings history),
+ * and needs no compression.
+ */
+public class BinaryProfileCodec implements ProfileCodec {
+    public static final String NAME = "binary";
+
+    private static final byte[] MAGIC = {'V', 'P', 'B'};
+    private static final int VERSION = 2;
+    // Oldest version that can still be read (1 = no earnings history)
+    private static final int MIN_VERSION = 1;
+    private static final PlayerDataManager.Skill[] SKILLS = PlayerDataManager.Skill.values();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(PlayerProfile profile) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(160);
+        out.write(MAGIC, 0, MAGIC.length);
+        out.write(VERSION);
+        writeVarLong(out, profile.getMoney());
+        writeVarLong(out, profile.getRpgLevel());
+        writeVarLong(out, profile.getRpgXp());
+        writeVarLong(out, zigzag(profile.getRawDailyEarnings()));
+        writeVarLong(out, profile.getLastLogin());
+        writeVarLong(out, profile.getSkillPoints());
+        writeVarLong(out, profile.getJournalSeq());
+        writeVarLong(out, SKILLS.length);
+        for (PlayerDataManager.Skill skill : SKILLS) {
+            writeVarLong(out, profile.getSkillLevel(skill));
+        }
+        writeVarLong(out, profile.getEarningsDay());
+        long[] ring = profile.getEarningsRing();
+        writeVarLong(out, ring.length);
+        for (long earnings : ring) {
+            writeVarLong(out, zigzag(earnings));
+        }
+
+        CRC32 crc = new CRC32();
+        byte[] body = out.toByteArray();
+        crc.update(body);
+        int value = (int) crc.getValue();
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+        return out.toByteArray();
+    }
+
+    @Override
+    public PlayerProfile decode(byte[] data) throws IOException {
+        if (!canDecode(data) || data.length < MAGIC.length + 1 + 4) {
+            throw new IOException("Not a binary player profile");
+        }
+        int bodyLength = data.length - 4;
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, bodyLength);
+        int stored = ((data[bodyLength] & 0xFF) << 24) | ((data[bodyLength + 1] & 0xFF) << 16)
+            | ((data[bodyLength + 2] & 0xFF) << 8) | (data[bodyLength + 3] & 0xFF);
+        if (stored != (int) crc.getValue()) {
+            throw new IOException("Binary player profile failed its checksum");
+        }
+        int version = data[MAGIC.length] & 0xFF;
+        if (version < MIN_VERSION || version > VERSION) {
+            throw new IOException("Unsupported binary player profile version " + version);
+        }
+
+        Reader in = new Reader(data, MAGIC.length + 1, bodyLength);
+        PlayerProfile profile = new PlayerProfile();
+        profile.setMoney(in.readVarLong());
+        profile.setRpgLevel((int) in.readVarLong());
+        profile.setRpgXp((int) in.readVarLong());
+        long dailyEarnings = unzigzag(in.readVarLong());
+        profile.setLastLogin(in.readVarLong());
+        profile.setSkillPoints((int) in.readVarLong());
+        profile.setJournalSeq(in.readVarLong());
+        int skillCount = (int) in.readVarLong();
+        for (int i = 0; i < skillCount; i++) {
+            int level = (int) in.readVarLong();
+            // Skills removed since the file was written are skipped
+            if (i < SKILLS.length) {
+                profile.setSkillLevel(SKILLS[i], level);
+            }
+        }
+
+        long earningsDay = 0;
+        long[] ring = new long[PlayerProfile.HISTORY_DAYS];
+        if (version >= 2) {
+            earningsDay = in.readVarLong();
+            int days = (int) in.readVarLong();
+            for (int i = 0; i < days; i++) {
+                long earnings = unzigzag(in.readVarLong());
+                if (i < ring.length) ring[i] = earnings;
+            }
+        }
+        profile.setRawEarnings(earningsDay, dailyEarnings, ring);
+        return profile;
+    }
+
+    @Override
+    public boolean canDecode(byte[] data) {
+        return data.length >= MAGIC.length && data[0] == MAGIC[0] && data[1] == MAGIC[1] && data[2] == MAGIC[2];
+    }
+
+    // ========== VARINTS ==========
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private final int end;
+        private int position;
+
+        Reader(byte[] data, int position, int end) {
+            this.data = data;
+            this.position = position;
+            this.end = end;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position >= end) {
+                    throw new IOException("Truncated binary player profile");
+                }
+                byte b = data[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed varint in binary player profile");
+        }
+    }
+}
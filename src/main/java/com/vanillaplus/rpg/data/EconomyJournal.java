@@ -0,0 +1,380 @@
+package com.vanillaplus.rpg.data;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal of money changes
+ *
+ * Every committed balance change appends a small binary record. Records are buffered during
+ * the tick and written + fsynced once per tick on a background thread (group commit), so a
+ * crash loses at most the current tick instead of everything since the last profile save.
+ *
+ * Each record carries a sequence number that is also stored in the player's profile. On startup
+ * records newer than the profile's sequence are replayed on top of it. After a checkpoint (all
+ * dirty profiles written) the journal moves to a new generation file and the old one is deleted.
+ *
+ * File: economy-NNNNNN.journal = header [magic(int) firstSeq(long)] then records
+ * Record: seq(long) uuidMost(long) uuidLeast(long) delta(long) reason(byte) tick(long) crc32(int)
+ */
+public class EconomyJournal {
+    private static final int FILE_MAGIC = 0x56504A31; // "VPJ1"
+    private static final int FILE_HEADER_SIZE = 4 + 8;
+    private static final int RECORD_SIZE = 8 + 8 + 8 + 8 + 1 + 8 + 4;
+    private static final String FILE_PREFIX = "economy-";
+    private static final String FILE_SUFFIX = ".journal";
+
+    // Records buffered per tick before a group commit is forced early
+    private static final int BUFFER_RECORDS = 1024;
+
+    /**
+     * Why a balance changed
+     */
+    public enum Reason {
+        OTHER(0),
+        ADMIN(1),
+        BUY(2),
+        SELL(3),
+        SELL_ALL(4),
+        MINING(5),
+        COMBAT(6),
+        SMELTING(7),
+        MOVEMENT(8),
+        STARTING_BALANCE(9),
+        TRANSFER(10),
+        AUCTION(11);
+
+        public final byte code;
+
+        Reason(int code) {
+            this.code = (byte) code;
+        }
+
+        public static Reason fromCode(byte code) {
+            for (Reason reason : values()) {
+                if (reason.code == code) return reason;
+            }
+            return OTHER;
+        }
+    }
+
+    /**
+     * A replayed journal entry
+     */
+    public record Entry(long seq, UUID player, long delta, Reason reason, long tick) {}
+
+    private static Path dir;
+    private static ExecutorService writer;
+
+    // Writer-thread state
+    private static FileChannel channel;
+
+    // Tick-thread state
+    private static int generation;
+    private static long nextSeq = 1;
+    private static long currentTick = 0;
+    private static long checkpointedSeq = 0;
+    private static ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * BUFFER_RECORDS);
+
+    // Stats (written by the writer thread only)
+    private static volatile long recordsWritten = 0;
+    private static volatile long groupCommits = 0;
+
+    // ========== STARTUP ==========
+
+    /**
+     * Read every record left over from the last run, oldest first
+     * Call before open(); the caller replays them and then checkpoints.
+     */
+    public static List<Entry> readAll(Path journalDir) throws IOException {
+        dir = journalDir;
+        nextSeq = 1;
+        List<Entry> entries = new ArrayList<>();
+        for (int gen : listGenerations()) {
+            readGeneration(gen, entries);
+        }
+        return entries;
+    }
+
+    private static void readGeneration(int gen, List<Entry> entries) throws IOException {
+        Path path = getPath(gen);
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            if (in.read(header, 0) < FILE_HEADER_SIZE) return;
+            header.flip();
+            if (header.getInt() != FILE_MAGIC) {
+                VanillaPlusRpg.LOGGER.warn("Ignoring economy journal {} with bad header", path.getFileName());
+                return;
+            }
+            nextSeq = Math.max(nextSeq, header.getLong());
+
+            ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+            long position = FILE_HEADER_SIZE;
+            while (true) {
+                record.clear();
+                int read = in.read(record, position);
+                if (read < RECORD_SIZE) break; // End of file or torn final record
+                record.flip();
+                long seq = record.getLong();
+                UUID player = new UUID(record.getLong(), record.getLong());
+                long delta = record.getLong();
+                byte reason = record.get();
+                long tick = record.getLong();
+                int crc = record.getInt();
+                if (crc != checksum(record.array(), RECORD_SIZE - 4)) {
+                    VanillaPlusRpg.LOGGER.warn("Economy journal {} has a corrupt record at offset {}, stopping replay there", path.getFileName(), position);
+                    break;
+                }
+                entries.add(new Entry(seq, player, delta, Reason.fromCode(reason), tick));
+                nextSeq = Math.max(nextSeq, seq + 1);
+                position += RECORD_SIZE;
+            }
+        }
+    }
+
+    /**
+     * Start journaling into a fresh generation
+     * Older generations stay on disk until the caller deletes them with deleteThrough().
+     * @return the newest generation that existed before, or 0 if there was none
+     */
+    public static synchronized int open() throws IOException {
+        Files.createDirectories(dir);
+        List<Integer> generations = listGenerations();
+        int previous = generations.isEmpty() ? 0 : generations.get(generations.size() - 1);
+        generation = previous + 1;
+        checkpointedSeq = nextSeq - 1;
+
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VanillaPlusRpg-Journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+        int gen = generation;
+        long firstSeq = nextSeq;
+        writer.execute(() -> openGeneration(gen, firstSeq));
+        return previous;
+    }
+
+    private static List<Integer> listGenerations() throws IOException {
+        List<Integer> generations = new ArrayList<>();
+        if (!Files.isDirectory(dir)) return generations;
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(FILE_PREFIX) && name.endsWith(FILE_SUFFIX)) {
+                    try {
+                        generations.add(Integer.parseInt(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // Not a journal file
+                    }
+                }
+            });
+        }
+        generations.sort(Integer::compare);
+        return generations;
+    }
+
+    private static Path getPath(int gen) {
+        return dir.resolve(FILE_PREFIX + String.format("%06d", gen) + FILE_SUFFIX);
+    }
+
+    // ========== APPEND (TICK THREAD) ==========
+
+    /**
+     * Append a balance change
+     * @return the record's sequence number, to be stored in the player's profile
+     */
+    public static synchronized long append(UUID player, long delta, Reason reason) {
+        long seq = nextSeq++;
+        if (writer == null) {
+            // Journal not open (no server running) - nothing to protect
+            return seq;
+        }
+        if (buffer.remaining() < RECORD_SIZE) {
+            commit();
+        }
+
+        int start = buffer.position();
+        buffer.putLong(seq);
+        buffer.putLong(player.getMostSignificantBits());
+        buffer.putLong(player.getLeastSignificantBits());
+        buffer.putLong(delta);
+        buffer.put(reason.code);
+        buffer.putLong(currentTick);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), start, RECORD_SIZE - 4);
+        buffer.putInt((int) crc.getValue());
+        return seq;
+    }
+
+    /**
+     * Group commit - hand this tick's records to the writer for one write + fsync
+     * Called at the end of every server tick.
+     */
+    public static synchronized void commit() {
+        if (writer == null || buffer.position() == 0) return;
+
+        ByteBuffer batch = buffer;
+        batch.flip();
+        buffer = ByteBuffer.allocate(RECORD_SIZE * BUFFER_RECORDS);
+        int records = batch.remaining() / RECORD_SIZE;
+
+        writer.execute(() -> {
+            try {
+                while (batch.hasRemaining()) {
+                    channel.write(batch);
+                }
+                channel.force(false);
+                recordsWritten += records;
+                groupCommits++;
+            } catch (Exception e) {
+                VanillaPlusRpg.LOGGER.error("Failed to write economy journal", e);
+            }
+        });
+    }
+
+    /**
+     * Run a task on the journal writer ahead of this tick's group commit
+     * Used to fsync files that must agree with the journal (the auction order log) in the same
+     * batch, without blocking the tick thread. Runs right away if the journal isn't open.
+     */
+    public static synchronized void beforeCommit(Runnable task) {
+        if (writer == null) {
+            task.run();
+            return;
+        }
+        writer.execute(task);
+    }
+
+    /**
+     * End-of-tick hook: group commit and remember the tick for the next records
+     */
+    public static void endTick(long tick) {
+        commit();
+        currentTick = tick;
+    }
+
+    // ========== CHECKPOINT ==========
+
+    /**
+     * Whether records were appended since the last checkpoint
+     */
+    public static synchronized boolean hasUncheckpointedRecords() {
+        return writer != null && nextSeq - 1 > checkpointedSeq;
+    }
+
+    /**
+     * Switch to a new generation file
+     * Call right after every dirty profile was handed to the writer: all records so far are
+     * then covered by those snapshots.
+     * @return the last generation the checkpoint covers, for deleteThrough()
+     */
+    public static synchronized int rotate() {
+        if (writer == null) return 0;
+        commit();
+        int covered = generation;
+        checkpointedSeq = nextSeq - 1;
+        generation++;
+        int gen = generation;
+        long firstSeq = nextSeq;
+        writer.execute(() -> openGeneration(gen, firstSeq));
+        return covered;
+    }
+
+    /**
+     * Delete every generation up to and including the given one
+     * Only call once the profile snapshots of the matching checkpoint are on disk.
+     */
+    public static synchronized void deleteThrough(int gen) {
+        if (writer == null) return;
+        writer.execute(() -> {
+            try {
+                for (int old : listGenerations()) {
+                    if (old <= gen) {
+                        Files.deleteIfExists(getPath(old));
+                    }
+                }
+            } catch (IOException e) {
+                VanillaPlusRpg.LOGGER.error("Failed to truncate economy journal", e);
+            }
+        });
+    }
+
+    /**
+     * Create a generation file with its header and make it the write target (writer thread)
+     */
+    private static void openGeneration(int gen, long firstSeq) {
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+            channel = FileChannel.open(getPath(gen),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+            header.putInt(FILE_MAGIC);
+            header.putLong(firstSeq);
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            VanillaPlusRpg.LOGGER.error("Failed to open economy journal generation {}", gen, e);
+        }
+    }
+
+    /**
+     * Write out remaining records and stop (call on server stopped, after the final checkpoint)
+     */
+    public static synchronized void close() {
+        if (writer == null) return;
+        commit();
+        writer.execute(() -> {
+            try {
+                if (channel != null) {
+                    channel.close();
+                    channel = null;
+                }
+            } catch (IOException e) {
+                VanillaPlusRpg.LOGGER.error("Failed to close economy journal", e);
+            }
+        });
+        writer.shutdown();
+        try {
+            writer.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    // ========== STATS ==========
+
+    public static long getRecordsWritten() {
+        return recordsWritten;
+    }
+
+    public static long getGroupCommits() {
+        return groupCommits;
+    }
+
+    private static int checksum(byte[] data, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,73 @@
+package com.vanillaplus.rpg.data;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * One file per player: <world>/vanillaplusrpg_playerdata/<uuid>.dat
+ * The original storage layout
+ */
+public class FilePlayerDataStore implements PlayerDataStore {
+    public static final String NAME = "file";
+
+    private static final String FILE_SUFFIX = ".dat";
+
+    private final Path dir;
+
+    public FilePlayerDataStore(Path dir) {
+        this.dir = dir;
+    }
+
+    private Path getPath(UUID uuid) {
+        return dir.resolve(uuid.toString() + FILE_SUFFIX);
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] read(UUID uuid) throws IOException {
+        try {
+            return Files.readAllBytes(getPath(uuid));
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Write data to a temp file, fsync it and move it over the target in one step
+     * A crash at any point leaves either the old file or the new one, never a truncated one
+     */
+    @Override
+    public void write(UUID uuid, byte[] data) throws IOException {
+        Files.createDirectories(dir);
+        AtomicFiles.write(getPath(uuid), data);
+    }
+
+    @Override
+    public Set<UUID> listPlayers() throws IOException {
+        Set<UUID> players = new HashSet<>();
+        if (!Files.isDirectory(dir)) return players;
+
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(FILE_SUFFIX)) return;
+                try {
+                    players.add(UUID.fromString(name.substring(0, name.length() - FILE_SUFFIX.length())));
+                } catch (IllegalArgumentException e) {
+                    // Not a player file
+                }
+            });
+        }
+        return players;
+    }
+}
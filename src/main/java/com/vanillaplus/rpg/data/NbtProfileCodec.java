@@ -0,0 +1,40 @@
+package com.vanillaplus.rpg.data;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
+import net.minecraft.nbt.NbtIo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * The original format: the profile's NBT compound, gzip compressed
+ */
+public class NbtProfileCodec implements ProfileCodec {
+    public static final String NAME = "nbt";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] encode(PlayerProfile profile) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        NbtIo.writeCompressed(profile.toNbt(), bytes);
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public PlayerProfile decode(byte[] data) throws IOException {
+        CompoundTag tag = NbtIo.readCompressed(new ByteArrayInputStream(data), NbtAccounter.unlimitedHeap());
+        return PlayerProfile.fromNbt(tag);
+    }
+
+    @Override
+    public boolean canDecode(byte[] data) {
+        // gzip header
+        return data.length >= 2 && (data[0] & 0xFF) == 0x1F && (data[1] & 0xFF) == 0x8B;
+    }
+}
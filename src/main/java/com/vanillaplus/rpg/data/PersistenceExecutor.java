@@ -0,0 +1,183 @@
+package com.vanillaplus.rpg.data;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background writer for player data
+ *
+ * The tick thread hands over a profile snapshot; a single worker thread encodes it with the
+ * active ProfileCodec and writes it to the active PlayerDataStore. Only the newest snapshot per
+ * player is kept, so a player changing data faster than the disk can keep up costs one write.
+ */
+public class PersistenceExecutor {
+    // Run store housekeeping (compaction) at most once a minute
+    private static final long MAINTENANCE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    // Latest snapshot per player that still has to reach the disk
+    private static final Map<UUID, PlayerProfile> PENDING = new ConcurrentHashMap<>();
+
+    private static ExecutorService executor;
+    private static PlayerDataStore store;
+    private static long lastMaintenance = System.nanoTime();
+
+    // Stats
+    private static final AtomicLong writesCompleted = new AtomicLong();
+    private static final AtomicLong writesFailed = new AtomicLong();
+    private static final AtomicLong totalWriteNanos = new AtomicLong();
+    private static final AtomicLong maxWriteNanos = new AtomicLong();
+
+    /**
+     * Start the writer thread for a store (call on server starting)
+     */
+    public static synchronized void start(PlayerDataStore dataStore) {
+        store = dataStore;
+        if (executor != null && !executor.isShutdown()) return;
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "VanillaPlusRpg-Persistence");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a snapshot for writing
+     * The snapshot must not be modified afterwards - pass a copy of the live data
+     */
+    public static void submit(UUID uuid, PlayerProfile snapshot) {
+        PlayerProfile previous = PENDING.put(uuid, snapshot);
+        if (previous != null) {
+            // A write for this player is already queued or running and will pick up the newer snapshot
+            return;
+        }
+
+        if (executor == null || executor.isShutdown()) {
+            // No worker (server stopping or not started) - write on the calling thread
+            writePending(uuid);
+            return;
+        }
+        executor.execute(() -> {
+            writePending(uuid);
+            maintainIfDue();
+        });
+    }
+
+    /**
+     * Run a task once every snapshot submitted so far has been written
+     * The worker is a single FIFO thread, so queuing behind the pending writes is enough.
+     */
+    public static void runAfterQueuedWrites(Runnable task) {
+        if (executor == null || executor.isShutdown()) {
+            task.run();
+            return;
+        }
+        executor.execute(task);
+    }
+
+    /**
+     * Get the newest snapshot that has not been written yet, or null
+     * Used when loading so a quick rejoin never reads a stale file. Copy it before changing it.
+     */
+    public static PlayerProfile getPendingSnapshot(UUID uuid) {
+        return PENDING.get(uuid);
+    }
+
+    /**
+     * Write the newest snapshot for a player, repeating while newer ones arrive
+     */
+    private static void writePending(UUID uuid) {
+        while (true) {
+            PlayerProfile pending = PENDING.get(uuid);
+            if (pending == null) return;
+
+            long start = System.nanoTime();
+            try {
+                store.write(uuid, ProfileCodecs.encode(pending));
+                long elapsed = System.nanoTime() - start;
+                writesCompleted.incrementAndGet();
+                totalWriteNanos.addAndGet(elapsed);
+                maxWriteNanos.accumulateAndGet(elapsed, Math::max);
+            } catch (Exception e) {
+                writesFailed.incrementAndGet();
+                VanillaPlusRpg.LOGGER.error("Failed to save player data for {}", uuid, e);
+            }
+
+            // Only clear the entry if nothing newer was queued while writing
+            if (PENDING.remove(uuid, pending)) return;
+        }
+    }
+
+    /**
+     * Let the store compact once the queue is idle, at most once per interval
+     */
+    private static void maintainIfDue() {
+        long now = System.nanoTime();
+        if (!PENDING.isEmpty() || now - lastMaintenance < MAINTENANCE_INTERVAL_NANOS) return;
+        lastMaintenance = now;
+        try {
+            store.maintain();
+        } catch (Exception e) {
+            VanillaPlusRpg.LOGGER.error("Player data store maintenance failed", e);
+        }
+    }
+
+    /**
+     * Finish all queued writes and stop the worker (call on server stopped)
+     */
+    public static synchronized void drain() {
+        if (executor == null) return;
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                VanillaPlusRpg.LOGGER.warn("Player data writer did not finish in time, {} writes pending", PENDING.size());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor = null;
+
+        // Anything still queued (e.g. submitted during shutdown) is written here
+        for (UUID uuid : PENDING.keySet()) {
+            writePending(uuid);
+        }
+    }
+
+    // ========== STATS ==========
+
+    /**
+     * Number of players with a snapshot waiting to be written
+     */
+    public static int getQueueDepth() {
+        return PENDING.size();
+    }
+
+    public static long getWritesCompleted() {
+        return writesCompleted.get();
+    }
+
+    public static long getWritesFailed() {
+        return writesFailed.get();
+    }
+
+    /**
+     * Average write latency in milliseconds
+     */
+    public static double getAverageWriteMillis() {
+        long count = writesCompleted.get();
+        return count == 0 ? 0.0 : totalWriteNanos.get() / (double) count / 1_000_000.0;
+    }
+
+    /**
+     * Slowest single write in milliseconds
+     */
+    public static double getMaxWriteMillis() {
+        return maxWriteNanos.get() / 1_000_000.0;
+    }
+}
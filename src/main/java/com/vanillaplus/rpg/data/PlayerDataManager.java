@@ -1,39 +1,61 @@
 package com.vanillaplus.rpg.data;
 
 import com.vanillaplus.rpg.VanillaPlusRpg;
-import net.minecraft.nbt.CompoundTag;
-import net.minecraft.nbt.NbtAccounter;
-import net.minecraft.nbt.NbtIo;
+import com.vanillaplus.rpg.config.RpgConfig;
 import net.minecraft.server.MinecraftServer;
-import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.level.storage.LevelResource;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
 
 /**
- * Manages player data persistence using file-based NBT storage
+ * Manages player data persistence using a ProfileCodec stored through a PlayerDataStore
+ * (one file per player, or append-only segments - see storageBackend in the config)
  * UPDATED FOR 1.21.11: Uses file-based approach since getPersistentData doesn't exist
+ * 
+ * Writes are batched (write-behind): setters only mark the profile dirty, and dirty
+ * profiles are flushed on an interval, on world save, on disconnect and on server stop.
+ * Money changes are also journaled (EconomyJournal) so they survive a crash between flushes.
+ * 
+ * Everything here runs on the server thread, except the paths AccountService uses from other
+ * threads (loading, commits and save snapshots), which hold the account's lock stripe.
  */
 public class PlayerDataManager {
     private static final String DATA_DIR = "vanillaplusrpg_playerdata";
+    private static final String SEGMENT_DIR = "segments";
     
-    // In-memory cache
-    private static final Map<UUID, CompoundTag> PLAYER_DATA_CACHE = new HashMap<>();
+    // Bounded in-memory cache; online players are pinned and also carry their profile on the player object
+    private static ProfileCache profileCache = new ProfileCache(1000, TimeUnit.MINUTES.toNanos(15));
     
-    // Data keys
-    private static final String KEY_MONEY = "money";
-    private static final String KEY_RPG_LEVEL = "rpgLevel";
-    private static final String KEY_RPG_XP = "rpgXp";
-    private static final String KEY_DAILY_EARNINGS = "dailyEarnings";
-    private static final String KEY_LAST_LOGIN = "lastLogin";
+    // Players whose cached data changed since the last write
+    // Concurrent because AccountService can commit from any thread
+    private static final Set<UUID> DIRTY_PLAYERS = ConcurrentHashMap.newKeySet();
+    
+    // World save folder and storage backend for player data, set on server start
+    private static Path dataDir;
+    private static PlayerDataStore store;
+    private static int ticksSinceFlush = 0;
+    
+    // Write-behind stats
+    private static long flushes = 0;
+    private static final AtomicLong coalescedWrites = new AtomicLong();
+    private static final AtomicLong diskWrites = new AtomicLong();
+    private static final AtomicLong commits = new AtomicLong();
     
     // Skill keys
-    private static final String KEY_SKILL_POINTS = "skillPoints";
     private static final String KEY_SKILL_FARMING = "skillFarming";
     private static final String KEY_SKILL_COMBAT = "skillCombat";
     private static final String KEY_SKILL_DEFENSE = "skillDefense";
@@ -64,133 +86,461 @@ public class PlayerDataManager {
     }
     
     /**
-     * Get the data directory path for a player
-     * 1.21.11: Access server through level().getServer()
+     * Bind the manager to a running server (call on server starting)
      */
-    private static Path getPlayerDataPath(ServerPlayer player) {
-        // Get server via the level - works in all 1.21.x versions
-        MinecraftServer server = ((ServerLevel) player.level()).getServer();
-        return server
-            .getWorldPath(LevelResource.ROOT)
-            .resolve(DATA_DIR)
-            .resolve(player.getUUID().toString() + ".dat");
+    public static void init(MinecraftServer server) {
+        dataDir = server.getWorldPath(LevelResource.ROOT).resolve(DATA_DIR);
+        ticksSinceFlush = 0;
+        RpgConfig config = RpgConfig.get();
+        profileCache = new ProfileCache(config.profileCacheSize, TimeUnit.MINUTES.toNanos(config.profileCacheExpireMinutes));
+        ProfileCodecs.setActive(config.profileCodec);
+        store = openStore(dataDir, config.storageBackend);
+        PersistenceExecutor.start(store);
+        replayJournal();
+        ProfilePreloader.start(PlayerDataManager::readProfile);
     }
     
     /**
-     * Get or create mod data compound for player
-     * Uses in-memory cache with file persistence
+     * Re-apply money changes that were journaled but never made it into a saved profile
+     * Then start a fresh journal; the replayed files are deleted once the fixed profiles are written.
      */
-    private static CompoundTag getModData(ServerPlayer player) {
-        UUID uuid = player.getUUID();
+    private static void replayJournal() {
+        try {
+            List<EconomyJournal.Entry> entries = EconomyJournal.readAll(dataDir);
+            Map<UUID, PlayerProfile> replayed = new HashMap<>();
+            int applied = 0;
+            for (EconomyJournal.Entry entry : entries) {
+                PlayerProfile profile = replayed.computeIfAbsent(entry.player(), PlayerDataManager::readProfile);
+                if (entry.seq() <= profile.getJournalSeq()) continue; // Already in the saved profile
+                profile.addMoney(entry.delta());
+                profile.setJournalSeq(entry.seq());
+                applied++;
+            }
+            if (applied > 0) {
+                for (Map.Entry<UUID, PlayerProfile> entry : replayed.entrySet()) {
+                    PersistenceExecutor.submit(entry.getKey(), entry.getValue());
+                }
+                VanillaPlusRpg.LOGGER.info("Replayed {} economy journal records for {} players", applied, replayed.size());
+            }
+            
+            int replayedThrough = EconomyJournal.open();
+            scheduleJournalTruncate(replayedThrough);
+        } catch (IOException e) {
+            VanillaPlusRpg.LOGGER.error("Failed to replay the economy journal, money changes since the last save may be missing", e);
+        }
+    }
+    
+    /**
+     * Open the configured storage backend
+     * If the world was last saved with the other backend, its data is migrated over once.
+     */
+    private static PlayerDataStore openStore(Path dir, String backend) {
+        try {
+            PlayerDataStore selected = createStore(dir, backend);
+            
+            String previous = PlayerDataStoreMigrator.readMarker(dir);
+            if (previous == null && Files.isDirectory(dir)) {
+                // Worlds from before the marker existed always used one file per player
+                previous = FilePlayerDataStore.NAME;
+            }
+            if (previous != null && !previous.equals(selected.name())) {
+                PlayerDataStore old = createStore(dir, previous);
+                PlayerDataStoreMigrator.migrate(old, selected);
+                old.close();
+            }
+            PlayerDataStoreMigrator.writeMarker(dir, selected.name());
+            
+            VanillaPlusRpg.LOGGER.info("Player data storage: {}", selected.describe());
+            return selected;
+        } catch (Exception e) {
+            VanillaPlusRpg.LOGGER.error("Failed to open '{}' player data storage, falling back to files", backend, e);
+            return new FilePlayerDataStore(dir);
+        }
+    }
+    
+    private static PlayerDataStore createStore(Path dir, String backend) throws IOException {
+        if (SegmentedPlayerDataStore.NAME.equals(backend)) {
+            return new SegmentedPlayerDataStore(dir.resolve(SEGMENT_DIR));
+        }
+        return new FilePlayerDataStore(dir);
+    }
+    
+    /**
+     * Flush everything and wait for the writer to finish (call on server stopped)
+     */
+    public static void shutdown() {
+        ProfilePreloader.stop();
+        flushDirty();
+        PersistenceExecutor.drain();
+        EconomyJournal.close();
+        profileCache.clear();
+        try {
+            store.close();
+        } catch (Exception e) {
+            VanillaPlusRpg.LOGGER.error("Failed to close player data storage", e);
+        }
+    }
+    
+    /**
+     * Get the active storage backend
+     */
+    public static PlayerDataStore getStore() {
+        return store;
+    }
+    
+    /**
+     * Get the loaded profile for a player, loading it on first access
+     * Online players keep the profile on the player object, so this is normally a field read
+     */
+    public static PlayerProfile getProfile(ServerPlayer player) {
+        PlayerProfileHolder holder = (PlayerProfileHolder) player;
+        PlayerProfile attached = holder.vanillaplusrpg$getProfile();
+        if (attached != null) {
+            return attached;
+        }
         
+        // New player object (first access, or respawn) - find or load the profile and attach it
+        UUID uuid = player.getUUID();
+        PlayerProfile profile = loadProfile(uuid, true);
+        profileCache.pin(uuid);
+        holder.vanillaplusrpg$setProfile(profile);
+        return profile;
+    }
+    
+    /**
+     * Get a profile by UUID, whether the player is online or not
+     * Offline profiles are loaded into the cache and evicted again once unused.
+     * Treat the result as read-only; change it through edit(UUID, ...).
+     */
+    public static PlayerProfile getProfile(UUID uuid) {
+        return loadProfile(uuid, false);
+    }
+    
+    /**
+     * Check whether a profile belongs to an online player
+     */
+    public static boolean isOnline(UUID uuid) {
+        return profileCache.isPinned(uuid);
+    }
+    
+    /**
+     * Get or load a profile by UUID
+     * Uses in-memory cache with file persistence
+     */
+    private static PlayerProfile loadProfile(UUID uuid, boolean joining) {
         // Check cache first
-        if (PLAYER_DATA_CACHE.containsKey(uuid)) {
-            return PLAYER_DATA_CACHE.get(uuid);
+        PlayerProfile cached = profileCache.get(uuid);
+        if (cached != null) {
+            if (joining) {
+                ProfilePreloader.invalidate(uuid); // Cached copy is newer than anything preloaded
+            }
+            return cached;
         }
         
-        // Try to load from file
-        Path dataPath = getPlayerDataPath(player);
-        if (Files.exists(dataPath)) {
-            try {
-                CompoundTag data = NbtIo.readCompressed(dataPath, NbtAccounter.unlimitedHeap());
-                PLAYER_DATA_CACHE.put(uuid, data);
-                return data;
-            } catch (Exception e) {
-                VanillaPlusRpg.LOGGER.error("Failed to load player data for {}", uuid, e);
+        // Load under the account lock so two threads missing at once can't cache two copies
+        ReentrantLock lock = AccountService.lockFor(uuid);
+        lock.lock();
+        try {
+            PlayerProfile loaded = profileCache.peek(uuid);
+            if (loaded != null) {
+                return loaded;
             }
+            
+            // Joining players were normally loaded in the background while logging in
+            PlayerProfile profile = joining ? ProfilePreloader.take(uuid) : null;
+            if (profile == null) {
+                profile = readProfile(uuid);
+            }
+            profileCache.put(uuid, profile);
+            return profile;
+        } finally {
+            lock.unlock();
         }
-        
-        // Create new data
-        CompoundTag newData = new CompoundTag();
-        PLAYER_DATA_CACHE.put(uuid, newData);
-        return newData;
     }
     
     /**
-     * Save mod data to file
+     * Read a profile from the writer queue or storage, bypassing the cache
+     * Returns a new profile if the player has no saved data. Thread-safe (used by the preloader).
      */
-    private static void saveModData(ServerPlayer player, CompoundTag modData) {
-        UUID uuid = player.getUUID();
-        PLAYER_DATA_CACHE.put(uuid, modData);
+    private static PlayerProfile readProfile(UUID uuid) {
+        // A snapshot still waiting for the writer is newer than the file
+        PlayerProfile pending = PersistenceExecutor.getPendingSnapshot(uuid);
+        if (pending != null) {
+            return pending.copy();
+        }
         
-        // Save to file
-        Path dataPath = getPlayerDataPath(player);
+        // Try to load from storage
         try {
-            Files.createDirectories(dataPath.getParent());
-            NbtIo.writeCompressed(modData, dataPath);
+            byte[] stored = store.read(uuid);
+            if (stored != null) {
+                return ProfileCodecs.decode(stored);
+            }
         } catch (Exception e) {
-            VanillaPlusRpg.LOGGER.error("Failed to save player data for {}", uuid, e);
+            VanillaPlusRpg.LOGGER.error("Failed to load player data for {}", uuid, e);
+        }
+        
+        // Create new data
+        return new PlayerProfile();
+    }
+    
+    /**
+     * Record that a player's cached data changed
+     * In write-behind mode the write is deferred to the next flush, otherwise it happens now.
+     * Offline profiles are always written now, so an evicted cache entry is never dirty.
+     */
+    private static void markDirty(UUID uuid, PlayerProfile profile) {
+        if (!RpgConfig.get().writeBehind || !profileCache.isPinned(uuid)) {
+            // Write the instance that was edited - an offline entry may already be evicted
+            writeModData(uuid, profile);
+            return;
+        }
+        if (!DIRTY_PLAYERS.add(uuid)) {
+            // Already pending - this change rides along with the next write
+            coalescedWrites.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Hand a snapshot of a player's cached data to the background writer
+     */
+    private static void writeModData(UUID uuid) {
+        PlayerProfile profile = profileCache.peek(uuid);
+        if (profile == null) return;
+        writeModData(uuid, profile);
+    }
+    
+    private static void writeModData(UUID uuid, PlayerProfile profile) {
+        // Snapshot under the account lock so a concurrent commit is never half-copied
+        PlayerProfile snapshot;
+        ReentrantLock lock = AccountService.lockFor(uuid);
+        lock.lock();
+        try {
+            snapshot = profile.copy();
+        } finally {
+            lock.unlock();
+        }
+        PersistenceExecutor.submit(uuid, snapshot);
+        diskWrites.incrementAndGet();
+    }
+    
+    /**
+     * Write every dirty profile to disk
+     * Called on the save interval, world autosave and server stop
+     */
+    public static void flushDirty() {
+        ticksSinceFlush = 0;
+        // Close the journal generation before taking snapshots, so every record in it belongs to a
+        // change the snapshots below include; commits that appended to it on other threads are
+        // waited for, so they have marked their player dirty (or written it) by then
+        int checkpoint = 0;
+        if (EconomyJournal.hasUncheckpointedRecords()) {
+            checkpoint = EconomyJournal.rotate();
+            AccountService.awaitCommits();
+        }
+        
+        if (!DIRTY_PLAYERS.isEmpty()) {
+            // Remove before writing: a change committed meanwhile re-marks the player for the next flush
+            Iterator<UUID> iterator = DIRTY_PLAYERS.iterator();
+            while (iterator.hasNext()) {
+                UUID uuid = iterator.next();
+                iterator.remove();
+                writeModData(uuid);
+            }
+            flushes++;
+        }
+        
+        // Every change in the closed generation is now in a queued snapshot
+        scheduleJournalTruncate(checkpoint);
+    }
+    
+    /**
+     * Delete journal generations up to the given one once the queued snapshots are on disk
+     * Skipped if any write failed meanwhile, so the journal still covers the lost snapshot.
+     */
+    private static void scheduleJournalTruncate(int generation) {
+        if (generation <= 0) return;
+        long failedBefore = PersistenceExecutor.getWritesFailed();
+        PersistenceExecutor.runAfterQueuedWrites(() -> {
+            if (PersistenceExecutor.getWritesFailed() == failedBefore) {
+                EconomyJournal.deleteThrough(generation);
+            } else {
+                VanillaPlusRpg.LOGGER.warn("Keeping economy journal generation {} because a player data write failed", generation);
+            }
+        });
+    }
+    
+    /**
+     * Tick handler - flushes dirty profiles every saveIntervalTicks
+     */
+    public static void tick() {
+        if (++ticksSinceFlush >= RpgConfig.get().saveIntervalTicks) {
+            flushDirty();
+            ProfilePreloader.expireStale();
+            profileCache.evictExpired();
         }
     }
     
     /**
-     * Unload player data from cache (call on player leave)
+     * Save a leaving player's data and make it evictable (call on player leave)
+     * The profile stays cached for a while so a quick rejoin doesn't read the disk.
      */
     public static void unloadPlayer(ServerPlayer player) {
-        // Save first
-        CompoundTag data = PLAYER_DATA_CACHE.get(player.getUUID());
-        if (data != null) {
-            saveModData(player, data);
+        UUID uuid = player.getUUID();
+        // Save now - always write on leave so nothing is lost if the server dies later
+        DIRTY_PLAYERS.remove(uuid);
+        writeModData(uuid);
+        profileCache.unpin(uuid);
+        // A preload started by a new login of the same account read the data before this save
+        ProfilePreloader.invalidate(uuid);
+        ((PlayerProfileHolder) player).vanillaplusrpg$setProfile(null);
+    }
+    
+    // ========== PERSISTENCE STATS ==========
+    
+    /**
+     * Number of batched flush passes that wrote at least one profile
+     */
+    public static long getFlushCount() {
+        return flushes;
+    }
+    
+    /**
+     * Number of changes that were folded into an already pending write
+     */
+    public static long getCoalescedWrites() {
+        return coalescedWrites.get();
+    }
+    
+    /**
+     * Number of profile snapshots handed to the background writer
+     */
+    public static long getDiskWrites() {
+        return diskWrites.get();
+    }
+    
+    /**
+     * Number of committed profile edits
+     */
+    public static long getCommitCount() {
+        return commits.get();
+    }
+    
+    /**
+     * Number of profiles waiting for the next flush
+     */
+    public static int getDirtyCount() {
+        return DIRTY_PLAYERS.size();
+    }
+    
+    /**
+     * The profile cache, for size and hit/miss/eviction stats
+     */
+    public static ProfileCache getProfileCache() {
+        return profileCache;
+    }
+    
+    // ========== EDITS ==========
+    
+    /**
+     * Apply several changes to a player's profile and commit them once
+     * The editor works on a copy; the changes are published together and saved as a single
+     * snapshot, so a crash can never persist half of them (e.g. XP without the level).
+     * If the editor throws, nothing is changed.
+     */
+    public static void edit(ServerPlayer player, Consumer<PlayerProfile> editor) {
+        edit(player, EconomyJournal.Reason.OTHER, editor);
+    }
+    
+    /**
+     * Edit a profile, journaling any balance change under the given reason
+     */
+    public static void edit(ServerPlayer player, EconomyJournal.Reason reason, Consumer<PlayerProfile> editor) {
+        commit(player.getUUID(), getProfile(player), reason, editor);
+    }
+    
+    /**
+     * Edit a profile by UUID - works for offline players too (e.g. admin commands)
+     */
+    public static void edit(UUID uuid, EconomyJournal.Reason reason, Consumer<PlayerProfile> editor) {
+        commit(uuid, getProfile(uuid), reason, editor);
+    }
+    
+    private static void commit(UUID uuid, PlayerProfile profile, EconomyJournal.Reason reason, Consumer<PlayerProfile> editor) {
+        // Serialized with AccountService operations on the same account
+        ReentrantLock lock = AccountService.lockFor(uuid);
+        lock.lock();
+        try {
+            PlayerProfile working = profile.copy();
+            editor.accept(working);
+            
+            long delta = working.getMoney() - profile.getMoney();
+            if (delta != 0) {
+                working.setJournalSeq(EconomyJournal.append(uuid, delta, reason));
+            }
+            profile.copyFrom(working);
+            commits.incrementAndGet();
+            if (!profileCache.isPinned(uuid)) {
+                // Offline edit - a preload started before it would miss the change
+                ProfilePreloader.invalidate(uuid);
+            }
+            markDirty(uuid, profile);
+        } finally {
+            lock.unlock();
         }
-        PLAYER_DATA_CACHE.remove(player.getUUID());
     }
     
     // ========== MONEY ==========
     
     public static long getMoney(ServerPlayer player) {
-        CompoundTag data = getModData(player);
-        // 1.21.11: Use getLongOr with default
-        return data.getLongOr(KEY_MONEY, 0L);
+        return getProfile(player).getMoney();
     }
     
     public static void setMoney(ServerPlayer player, long amount) {
-        CompoundTag data = getModData(player);
-        data.putLong(KEY_MONEY, Math.max(0, amount));
-        saveModData(player, data);
+        edit(player, EconomyJournal.Reason.ADMIN, profile -> profile.setMoney(amount));
     }
     
     public static void addMoney(ServerPlayer player, long amount) {
-        setMoney(player, getMoney(player) + amount);
+        addMoney(player, amount, EconomyJournal.Reason.OTHER);
+    }
+    
+    public static void addMoney(ServerPlayer player, long amount, EconomyJournal.Reason reason) {
+        edit(player, reason, profile -> profile.addMoney(amount));
     }
     
     public static boolean removeMoney(ServerPlayer player, long amount) {
-        long current = getMoney(player);
-        if (current >= amount) {
-            setMoney(player, current - amount);
-            return true;
-        }
-        return false;
+        return removeMoney(player, amount, EconomyJournal.Reason.OTHER);
+    }
+    
+    /**
+     * Take a positive amount if the balance covers it (checked and debited under the account lock)
+     * @return false if the balance is too low
+     */
+    public static boolean removeMoney(ServerPlayer player, long amount, EconomyJournal.Reason reason) {
+        return AccountService.tryDebit(player.getUUID(), amount, reason);
     }
     
     // ========== RPG LEVEL ==========
     
     public static int getRpgLevel(ServerPlayer player) {
-        CompoundTag data = getModData(player);
-        int level = data.getIntOr(KEY_RPG_LEVEL, 1);
-        return Math.max(1, level); // Minimum level 1
+        return getProfile(player).getRpgLevel();
     }
     
     public static void setRpgLevel(ServerPlayer player, int level) {
-        CompoundTag data = getModData(player);
-        data.putInt(KEY_RPG_LEVEL, Math.max(1, level));
-        saveModData(player, data);
+        edit(player, profile -> profile.setRpgLevel(level));
     }
     
     public static void addRpgLevel(ServerPlayer player, int amount) {
-        setRpgLevel(player, getRpgLevel(player) + amount);
+        edit(player, profile -> profile.setRpgLevel(profile.getRpgLevel() + amount));
     }
     
     // ========== RPG XP ==========
     
     public static int getRpgXp(ServerPlayer player) {
-        CompoundTag data = getModData(player);
-        return data.getIntOr(KEY_RPG_XP, 0);
+        return getProfile(player).getRpgXp();
     }
     
     public static void setRpgXp(ServerPlayer player, int xp) {
-        CompoundTag data = getModData(player);
-        data.putInt(KEY_RPG_XP, Math.max(0, xp));
-        saveModData(player, data);
+        edit(player, profile -> profile.setRpgXp(xp));
     }
     
     /**
@@ -198,20 +548,7 @@ public class PlayerDataManager {
      * XP required for next level = level * 100
      */
     public static void addRpgXp(ServerPlayer player, int amount) {
-        int currentXp = getRpgXp(player);
-        int currentLevel = getRpgLevel(player);
-        int newXp = currentXp + amount;
-        
-        // Check for level up
-        int xpRequired = getXpRequired(currentLevel);
-        while (newXp >= xpRequired) {
-            newXp -= xpRequired;
-            currentLevel++;
-            xpRequired = getXpRequired(currentLevel);
-        }
-        
-        setRpgXp(player, newXp);
-        setRpgLevel(player, currentLevel);
+        edit(player, profile -> profile.addRpgXp(amount));
     }
     
     /**
@@ -234,34 +571,32 @@ public class PlayerDataManager {
     // ========== DAILY EARNINGS ==========
     
     public static long getDailyEarnings(ServerPlayer player) {
-        CompoundTag data = getModData(player);
-        return data.getLongOr(KEY_DAILY_EARNINGS, 0L);
+        return getProfile(player).getDailyEarnings();
     }
     
     public static void addToDailyEarnings(ServerPlayer player, long amount) {
-        CompoundTag data = getModData(player);
-        long current = data.getLongOr(KEY_DAILY_EARNINGS, 0L);
-        data.putLong(KEY_DAILY_EARNINGS, current + amount);
-        saveModData(player, data);
+        edit(player, profile -> profile.addDailyEarnings(amount));
+    }
+    
+    /**
+     * Earnings per day for the last PlayerProfile.HISTORY_DAYS days, newest first
+     */
+    public static long[] getEarningsHistory(ServerPlayer player) {
+        return getProfile(player).getEarningsHistory();
     }
     
     public static void resetDailyEarnings(ServerPlayer player) {
-        CompoundTag data = getModData(player);
-        data.putLong(KEY_DAILY_EARNINGS, 0L);
-        saveModData(player, data);
+        edit(player, profile -> profile.setDailyEarnings(0L));
     }
     
     // ========== UTILITIES ==========
     
     public static long getLastLogin(ServerPlayer player) {
-        CompoundTag data = getModData(player);
-        return data.getLongOr(KEY_LAST_LOGIN, 0L);
+        return getProfile(player).getLastLogin();
     }
     
     public static void setLastLogin(ServerPlayer player) {
-        CompoundTag data = getModData(player);
-        data.putLong(KEY_LAST_LOGIN, System.currentTimeMillis());
-        saveModData(player, data);
+        edit(player, profile -> profile.setLastLogin(System.currentTimeMillis()));
     }
     
     /**
@@ -276,11 +611,13 @@ public class PlayerDataManager {
      */
     public static void initNewPlayer(ServerPlayer player) {
         if (isFirstLogin(player)) {
-            setMoney(player, 100); // Start with 100 coins
-            setRpgLevel(player, 1);
-            setRpgXp(player, 0);
-            resetDailyEarnings(player);
-            setLastLogin(player);
+            edit(player, EconomyJournal.Reason.STARTING_BALANCE, profile -> {
+                profile.setMoney(100); // Start with 100 coins
+                profile.setRpgLevel(1);
+                profile.setRpgXp(0);
+                profile.setDailyEarnings(0L);
+                profile.setLastLogin(System.currentTimeMillis());
+            });
         }
     }
     
@@ -302,41 +639,35 @@ public class PlayerDataManager {
      * Get available skill points
      */
     public static int getSkillPoints(ServerPlayer player) {
-        CompoundTag data = getModData(player);
-        return data.getIntOr(KEY_SKILL_POINTS, 0);
+        return getProfile(player).getSkillPoints();
     }
     
     /**
      * Set available skill points
      */
     public static void setSkillPoints(ServerPlayer player, int points) {
-        CompoundTag data = getModData(player);
-        data.putInt(KEY_SKILL_POINTS, Math.max(0, points));
-        saveModData(player, data);
+        edit(player, profile -> profile.setSkillPoints(points));
     }
     
     /**
      * Add skill points (called on level up)
      */
     public static void addSkillPoints(ServerPlayer player, int amount) {
-        setSkillPoints(player, getSkillPoints(player) + amount);
+        edit(player, profile -> profile.addSkillPoints(amount));
     }
     
     /**
      * Get a specific skill level
      */
     public static int getSkillLevel(ServerPlayer player, Skill skill) {
-        CompoundTag data = getModData(player);
-        return data.getIntOr(skill.key, 0);
+        return getProfile(player).getSkillLevel(skill);
     }
     
     /**
      * Set a specific skill level
      */
     public static void setSkillLevel(ServerPlayer player, Skill skill, int level) {
-        CompoundTag data = getModData(player);
-        data.putInt(skill.key, Math.max(0, Math.min(10, level))); // Max level 10
-        saveModData(player, data);
+        edit(player, profile -> profile.setSkillLevel(skill, level)); // Max level 10
     }
     
     /**
@@ -344,17 +675,17 @@ public class PlayerDataManager {
      * Returns true if successful
      */
     public static boolean upgradeSkill(ServerPlayer player, Skill skill) {
-        int currentPoints = getSkillPoints(player);
-        int currentLevel = getSkillLevel(player, skill);
-        
-        // Check if can upgrade
-        if (currentPoints <= 0) return false;
-        if (currentLevel >= 10) return false; // Max level 10
-        
-        // Upgrade
-        setSkillPoints(player, currentPoints - 1);
-        setSkillLevel(player, skill, currentLevel + 1);
-        return true;
+        // Checked and applied on the working copy, so a concurrent edit can't be overwritten
+        boolean[] upgraded = new boolean[1];
+        edit(player, working -> {
+            if (working.getSkillPoints() <= 0) return;
+            if (working.getSkillLevel(skill) >= PlayerProfile.MAX_SKILL_LEVEL) return; // Max level 10
+            
+            working.setSkillPoints(working.getSkillPoints() - 1);
+            working.setSkillLevel(skill, working.getSkillLevel(skill) + 1);
+            upgraded[0] = true;
+        });
+        return upgraded[0];
     }
     
     /**
@@ -379,9 +710,10 @@ public class PlayerDataManager {
      * Get total skill points invested across all skills
      */
     public static int getTotalSkillsInvested(ServerPlayer player) {
+        PlayerProfile profile = getProfile(player);
         int total = 0;
         for (Skill skill : Skill.values()) {
-            total += getSkillLevel(player, skill);
+            total += profile.getSkillLevel(skill);
         }
         return total;
     }
@@ -0,0 +1,50 @@
+package com.vanillaplus.rpg.data;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Storage backend for serialized player profiles
+ * Backends only move bytes around; encoding is done by PlayerDataManager / PersistenceExecutor.
+ * Writes always come from one thread (the persistence writer), reads may come from any thread.
+ */
+public interface PlayerDataStore {
+    /**
+     * Short backend name as used in the config ("file", "segmented")
+     */
+    String name();
+
+    /**
+     * Read the stored bytes for a player
+     * @return the data, or null if the player has never been saved
+     */
+    byte[] read(UUID uuid) throws IOException;
+
+    /**
+     * Store the bytes for a player, replacing any previous data
+     */
+    void write(UUID uuid, byte[] data) throws IOException;
+
+    /**
+     * Get every player that has stored data
+     */
+    Set<UUID> listPlayers() throws IOException;
+
+    /**
+     * Background housekeeping (compaction etc.), called from the writer thread
+     */
+    default void maintain() throws IOException {}
+
+    /**
+     * One-line description for admin stats
+     */
+    default String describe() {
+        return name();
+    }
+
+    /**
+     * Flush and release resources
+     */
+    default void close() throws IOException {}
+}
@@ -0,0 +1,56 @@
+package com.vanillaplus.rpg.data;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+/**
+ * Copies player data between storage backends
+ * The backend in use is recorded in a marker file, so switching storageBackend in the
+ * config migrates exactly once on the next start.
+ */
+public class PlayerDataStoreMigrator {
+    private static final String MARKER_FILE = "backend.txt";
+
+    /**
+     * Get the backend the world was last saved with, or null if unknown
+     */
+    public static String readMarker(Path dataDir) {
+        Path marker = dataDir.resolve(MARKER_FILE);
+        try {
+            return Files.exists(marker) ? Files.readString(marker, StandardCharsets.UTF_8).trim() : null;
+        } catch (IOException e) {
+            VanillaPlusRpg.LOGGER.warn("Could not read {}", marker, e);
+            return null;
+        }
+    }
+
+    /**
+     * Record the backend now in use
+     */
+    public static void writeMarker(Path dataDir, String backend) throws IOException {
+        Files.createDirectories(dataDir);
+        Files.writeString(dataDir.resolve(MARKER_FILE), backend, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copy every stored profile from one backend to another
+     * @return number of profiles copied
+     */
+    public static int migrate(PlayerDataStore from, PlayerDataStore to) throws IOException {
+        int copied = 0;
+        for (UUID uuid : from.listPlayers()) {
+            byte[] data = from.read(uuid);
+            if (data != null) {
+                to.write(uuid, data);
+                copied++;
+            }
+        }
+        VanillaPlusRpg.LOGGER.info("Migrated {} player profiles from '{}' to '{}' storage", copied, from.name(), to.name());
+        return copied;
+    }
+}
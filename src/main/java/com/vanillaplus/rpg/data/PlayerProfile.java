@@ -0,0 +1,302 @@
+package com.vanillaplus.rpg.data;
+
+import net.minecraft.nbt.CompoundTag;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * In-memory player data with plain fields
+ * Converted to/from NBT only when loading or saving, so reads on the hot path are field reads
+ */
+public class PlayerProfile {
+    // Data keys
+    private static final String KEY_MONEY = "money";
+    private static final String KEY_RPG_LEVEL = "rpgLevel";
+    private static final String KEY_RPG_XP = "rpgXp";
+    private static final String KEY_DAILY_EARNINGS = "dailyEarnings";
+    private static final String KEY_LAST_LOGIN = "lastLogin";
+    private static final String KEY_SKILL_POINTS = "skillPoints";
+    private static final String KEY_JOURNAL_SEQ = "journalSeq";
+    private static final String KEY_EARNINGS_DAY = "earningsDay";
+    private static final String KEY_EARNINGS_HISTORY = "earningsHistory";
+
+    private static final PlayerDataManager.Skill[] SKILLS = PlayerDataManager.Skill.values();
+
+    public static final int MAX_SKILL_LEVEL = 10;
+
+    // Days of earnings kept, including today
+    public static final int HISTORY_DAYS = 30;
+
+    // Volatile so readers outside the account lock see the latest committed balance
+    private volatile long money = 0;
+    private int rpgLevel = 1;
+    private int rpgXp = 0;
+    // Earnings of earningsDay (an epoch day); rolled into the history ring when a later day is earned on
+    private long dailyEarnings = 0;
+    private long earningsDay = 0;
+    // Earnings of the days before earningsDay, at index day % HISTORY_DAYS
+    private final long[] earningsHistory = new long[HISTORY_DAYS];
+    private long lastLogin = 0;
+    private int skillPoints = 0;
+
+    // Sequence of the last economy journal record included in this profile
+    private long journalSeq = 0;
+
+    // Indexed by Skill.ordinal()
+    private final int[] skillLevels = new int[SKILLS.length];
+
+    // ========== NBT ==========
+
+    /**
+     * Read a profile from its saved NBT form
+     */
+    public static PlayerProfile fromNbt(CompoundTag tag) {
+        PlayerProfile profile = new PlayerProfile();
+        // 1.21.11: Use getLongOr/getIntOr with default
+        profile.money = Math.max(0, tag.getLongOr(KEY_MONEY, 0L));
+        profile.rpgLevel = Math.max(1, tag.getIntOr(KEY_RPG_LEVEL, 1));
+        profile.rpgXp = Math.max(0, tag.getIntOr(KEY_RPG_XP, 0));
+        profile.dailyEarnings = tag.getLongOr(KEY_DAILY_EARNINGS, 0L);
+        profile.lastLogin = tag.getLongOr(KEY_LAST_LOGIN, 0L);
+        profile.skillPoints = Math.max(0, tag.getIntOr(KEY_SKILL_POINTS, 0));
+        profile.journalSeq = tag.getLongOr(KEY_JOURNAL_SEQ, 0L);
+        profile.earningsDay = tag.getLongOr(KEY_EARNINGS_DAY, 0L);
+        tag.getLongArray(KEY_EARNINGS_HISTORY).ifPresent(history ->
+            System.arraycopy(history, 0, profile.earningsHistory, 0, Math.min(history.length, HISTORY_DAYS)));
+        for (PlayerDataManager.Skill skill : SKILLS) {
+            profile.skillLevels[skill.ordinal()] = clampSkill(tag.getIntOr(skill.key, 0));
+        }
+        return profile;
+    }
+
+    /**
+     * Write the profile to a new NBT compound
+     * The returned tag is not shared, so it can be handed to another thread as-is
+     */
+    public CompoundTag toNbt() {
+        CompoundTag tag = new CompoundTag();
+        tag.putLong(KEY_MONEY, money);
+        tag.putInt(KEY_RPG_LEVEL, rpgLevel);
+        tag.putInt(KEY_RPG_XP, rpgXp);
+        tag.putLong(KEY_DAILY_EARNINGS, dailyEarnings);
+        tag.putLong(KEY_LAST_LOGIN, lastLogin);
+        tag.putInt(KEY_SKILL_POINTS, skillPoints);
+        tag.putLong(KEY_JOURNAL_SEQ, journalSeq);
+        tag.putLong(KEY_EARNINGS_DAY, earningsDay);
+        tag.putLongArray(KEY_EARNINGS_HISTORY, earningsHistory.clone());
+        for (PlayerDataManager.Skill skill : SKILLS) {
+            tag.putInt(skill.key, skillLevels[skill.ordinal()]);
+        }
+        return tag;
+    }
+
+    // ========== COPY ==========
+
+    /**
+     * Create an independent copy (used as the working copy of an edit)
+     */
+    public PlayerProfile copy() {
+        PlayerProfile copy = new PlayerProfile();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    /**
+     * Overwrite every field with the values of another profile
+     */
+    public void copyFrom(PlayerProfile other) {
+        this.money = other.money;
+        this.rpgLevel = other.rpgLevel;
+        this.rpgXp = other.rpgXp;
+        this.dailyEarnings = other.dailyEarnings;
+        this.lastLogin = other.lastLogin;
+        this.skillPoints = other.skillPoints;
+        this.journalSeq = other.journalSeq;
+        this.earningsDay = other.earningsDay;
+        System.arraycopy(other.earningsHistory, 0, this.earningsHistory, 0, HISTORY_DAYS);
+        System.arraycopy(other.skillLevels, 0, this.skillLevels, 0, skillLevels.length);
+    }
+
+    // ========== FIELDS ==========
+
+    public long getMoney() {
+        return money;
+    }
+
+    public void setMoney(long money) {
+        this.money = Math.max(0, money);
+    }
+
+    public void addMoney(long amount) {
+        setMoney(money + amount);
+    }
+
+    public int getRpgLevel() {
+        return rpgLevel;
+    }
+
+    public void setRpgLevel(int rpgLevel) {
+        this.rpgLevel = Math.max(1, rpgLevel); // Minimum level 1
+    }
+
+    public int getRpgXp() {
+        return rpgXp;
+    }
+
+    public void setRpgXp(int rpgXp) {
+        this.rpgXp = Math.max(0, rpgXp);
+    }
+
+    /**
+     * Add XP and handle level ups
+     * XP required for next level = level * 100
+     */
+    public void addRpgXp(int amount) {
+        int newXp = rpgXp + amount;
+        int newLevel = rpgLevel;
+
+        // Check for level up
+        int xpRequired = PlayerDataManager.getXpRequired(newLevel);
+        while (newXp >= xpRequired) {
+            newXp -= xpRequired;
+            newLevel++;
+            xpRequired = PlayerDataManager.getXpRequired(newLevel);
+        }
+
+        setRpgXp(newXp);
+        setRpgLevel(newLevel);
+    }
+
+    // ========== DAILY EARNINGS ==========
+
+    /**
+     * Today's date as an epoch day in the server's time zone
+     */
+    public static long currentDay() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    /**
+     * Earnings of the current day (0 if nothing was earned yet today)
+     * Nothing is reset at midnight - a stale day simply reads as 0 until the next earning rolls it over.
+     */
+    public long getDailyEarnings() {
+        return earningsDay == currentDay() ? dailyEarnings : 0;
+    }
+
+    /**
+     * Set today's earnings
+     */
+    public void setDailyEarnings(long dailyEarnings) {
+        rollOver(currentDay());
+        this.dailyEarnings = dailyEarnings;
+    }
+
+    public void addDailyEarnings(long amount) {
+        rollOver(currentDay());
+        this.dailyEarnings += amount;
+    }
+
+    /**
+     * Earnings per day, newest first: [0] is today, [1] yesterday, ... (HISTORY_DAYS entries)
+     */
+    public long[] getEarningsHistory() {
+        long today = currentDay();
+        long[] days = new long[HISTORY_DAYS];
+        for (int i = 0; i < HISTORY_DAYS; i++) {
+            long day = today - i;
+            if (day == earningsDay) {
+                days[i] = dailyEarnings;
+            } else if (day < earningsDay && earningsDay - day < HISTORY_DAYS) {
+                days[i] = earningsHistory[slot(day)];
+            }
+            // Days after earningsDay had no earnings, older ones fell out of the ring
+        }
+        return days;
+    }
+
+    /**
+     * Move the earnings of an older day into the ring and start a new day
+     * At most HISTORY_DAYS slots are touched, however long the player was away.
+     */
+    private void rollOver(long today) {
+        if (today <= earningsDay) return; // Same day (or the clock went back) - keep adding to it
+        long gap = today - earningsDay;
+        if (gap >= HISTORY_DAYS) {
+            // Everything in the ring is older than the window (also covers profiles from before the ring)
+            Arrays.fill(earningsHistory, 0);
+        } else {
+            earningsHistory[slot(earningsDay)] = dailyEarnings;
+            for (long day = earningsDay + 1; day < today; day++) {
+                earningsHistory[slot(day)] = 0;
+            }
+        }
+        earningsDay = today;
+        dailyEarnings = 0;
+    }
+
+    private static int slot(long day) {
+        return (int) Math.floorMod(day, HISTORY_DAYS);
+    }
+
+    // Raw access for the codecs
+
+    long getRawDailyEarnings() {
+        return dailyEarnings;
+    }
+
+    long getEarningsDay() {
+        return earningsDay;
+    }
+
+    long[] getEarningsRing() {
+        return earningsHistory;
+    }
+
+    void setRawEarnings(long day, long dailyEarnings, long[] ring) {
+        this.earningsDay = day;
+        this.dailyEarnings = dailyEarnings;
+        System.arraycopy(ring, 0, earningsHistory, 0, Math.min(ring.length, HISTORY_DAYS));
+    }
+
+    public long getLastLogin() {
+        return lastLogin;
+    }
+
+    public void setLastLogin(long lastLogin) {
+        this.lastLogin = lastLogin;
+    }
+
+    public int getSkillPoints() {
+        return skillPoints;
+    }
+
+    public void setSkillPoints(int skillPoints) {
+        this.skillPoints = Math.max(0, skillPoints);
+    }
+
+    public void addSkillPoints(int amount) {
+        setSkillPoints(skillPoints + amount);
+    }
+
+    public long getJournalSeq() {
+        return journalSeq;
+    }
+
+    public void setJournalSeq(long journalSeq) {
+        this.journalSeq = journalSeq;
+    }
+
+    public int getSkillLevel(PlayerDataManager.Skill skill) {
+        return skillLevels[skill.ordinal()];
+    }
+
+    public void setSkillLevel(PlayerDataManager.Skill skill, int level) {
+        skillLevels[skill.ordinal()] = clampSkill(level);
+    }
+
+    private static int clampSkill(int level) {
+        return Math.max(0, Math.min(MAX_SKILL_LEVEL, level));
+    }
+}
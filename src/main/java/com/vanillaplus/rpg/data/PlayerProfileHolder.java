@@ -0,0 +1,11 @@
+package com.vanillaplus.rpg.data;
+
+/**
+ * Implemented on ServerPlayer by ServerPlayerMixin
+ * Lets PlayerDataManager keep the loaded profile on the player object itself
+ */
+public interface PlayerProfileHolder {
+    PlayerProfile vanillaplusrpg$getProfile();
+
+    void vanillaplusrpg$setProfile(PlayerProfile profile);
+}
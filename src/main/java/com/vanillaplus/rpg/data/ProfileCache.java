@@ -0,0 +1,160 @@
+package com.vanillaplus.rpg.data;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bounded LRU cache of loaded player profiles
+ *
+ * Online players are pinned and never evicted. Offline profiles (recently disconnected players,
+ * admin lookups) are dropped least-recently-used first once the cache is over its size, or once
+ * they have not been touched for the idle timeout. Entries are never dirty when evicted:
+ * profiles are written on disconnect and offline edits are written immediately.
+ */
+public class ProfileCache {
+    private static final class Entry {
+        final PlayerProfile profile;
+        long lastAccess;
+
+        Entry(PlayerProfile profile, long lastAccess) {
+            this.profile = profile;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    private final int maxSize;
+    private final long expireNanos;
+
+    // Access-ordered: iteration starts at the least recently used entry
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<UUID> pinned = new HashSet<>();
+
+    // Stats
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public ProfileCache(int maxSize, long expireNanos) {
+        this.maxSize = maxSize;
+        this.expireNanos = expireNanos;
+    }
+
+    /**
+     * Get a cached profile and mark it as recently used, or null
+     */
+    public synchronized PlayerProfile get(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        entry.lastAccess = System.nanoTime();
+        return entry.profile;
+    }
+
+    /**
+     * Get a cached profile without touching its LRU position or the stats
+     */
+    public synchronized PlayerProfile peek(UUID uuid) {
+        Entry entry = entries.get(uuid);
+        return entry != null ? entry.profile : null;
+    }
+
+    /**
+     * Add a profile, evicting the least recently used offline profiles if over size
+     */
+    public synchronized void put(UUID uuid, PlayerProfile profile) {
+        entries.put(uuid, new Entry(profile, System.nanoTime()));
+        if (entries.size() <= maxSize) return;
+
+        Iterator<Map.Entry<UUID, Entry>> iterator = entries.entrySet().iterator();
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            UUID candidate = iterator.next().getKey();
+            if (pinned.contains(candidate) || candidate.equals(uuid)) continue;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Keep a profile in the cache regardless of size and age (player is online)
+     */
+    public synchronized void pin(UUID uuid) {
+        pinned.add(uuid);
+    }
+
+    public synchronized boolean isPinned(UUID uuid) {
+        return pinned.contains(uuid);
+    }
+
+    /**
+     * Make a profile evictable again (player went offline)
+     */
+    public synchronized void unpin(UUID uuid) {
+        pinned.remove(uuid);
+        Entry entry = entries.get(uuid);
+        if (entry != null) {
+            entry.lastAccess = System.nanoTime();
+        }
+    }
+
+    /**
+     * Drop offline profiles that have been idle longer than the timeout
+     */
+    public synchronized void evictExpired() {
+        long now = System.nanoTime();
+        Iterator<Map.Entry<UUID, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Entry> entry = iterator.next();
+            if (pinned.contains(entry.getKey())) continue;
+            if (now - entry.getValue().lastAccess > expireNanos) {
+                iterator.remove();
+                evictions++;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        pinned.clear();
+    }
+
+    // ========== STATS ==========
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public synchronized int getPinnedCount() {
+        return pinned.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Share of lookups served from memory (0.0 to 1.0)
+     */
+    public synchronized double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : hits / (double) total;
+    }
+}
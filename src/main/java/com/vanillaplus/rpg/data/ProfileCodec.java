@@ -0,0 +1,23 @@
+package com.vanillaplus.rpg.data;
+
+import java.io.IOException;
+
+/**
+ * Converts a player profile to and from the bytes kept in a PlayerDataStore
+ * Implementations must be thread-safe; they run on the persistence and preload threads.
+ */
+public interface ProfileCodec {
+    /**
+     * Name used in the config (profileCodec)
+     */
+    String name();
+
+    byte[] encode(PlayerProfile profile) throws IOException;
+
+    PlayerProfile decode(byte[] data) throws IOException;
+
+    /**
+     * Whether the bytes look like this codec's format (checked on the leading magic bytes)
+     */
+    boolean canDecode(byte[] data);
+}
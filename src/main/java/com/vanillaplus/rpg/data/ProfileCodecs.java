@@ -0,0 +1,99 @@
+package com.vanillaplus.rpg.data;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registry of profile codecs
+ * New saves use the configured codec; reads detect the format from the data, so a world can
+ * switch codecs at any time and older files are rewritten on their next save.
+ */
+public class ProfileCodecs {
+    public static final ProfileCodec NBT = new NbtProfileCodec();
+    public static final ProfileCodec BINARY = new BinaryProfileCodec();
+
+    private static final ProfileCodec[] ALL = {NBT, BINARY};
+
+    private static volatile ProfileCodec active = NBT;
+
+    /**
+     * Benchmark result for one codec
+     */
+    public record BenchmarkResult(String codec, int bytes, double encodeMicros, double decodeMicros) {}
+
+    /**
+     * Look up a codec by config name, or null
+     */
+    public static ProfileCodec get(String name) {
+        for (ProfileCodec codec : ALL) {
+            if (codec.name().equals(name)) return codec;
+        }
+        return null;
+    }
+
+    /**
+     * Select the codec used for writing
+     */
+    public static void setActive(String name) {
+        ProfileCodec codec = get(name);
+        active = codec != null ? codec : NBT;
+    }
+
+    public static ProfileCodec getActive() {
+        return active;
+    }
+
+    /**
+     * Encode with the active codec
+     */
+    public static byte[] encode(PlayerProfile profile) throws IOException {
+        return active.encode(profile);
+    }
+
+    /**
+     * Decode data written by any known codec
+     */
+    public static PlayerProfile decode(byte[] data) throws IOException {
+        for (ProfileCodec codec : ALL) {
+            if (codec.canDecode(data)) {
+                return codec.decode(data);
+            }
+        }
+        throw new IOException("Unknown player data format");
+    }
+
+    // ========== BENCHMARK ==========
+
+    /**
+     * Measure size and encode/decode time of every codec for a sample profile
+     * CPU heavy - run off the tick thread.
+     */
+    public static List<BenchmarkResult> benchmark(PlayerProfile sample, int iterations) throws IOException {
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (ProfileCodec codec : ALL) {
+            byte[] encoded = codec.encode(sample);
+
+            // Warm up so the JIT has compiled both paths before timing
+            for (int i = 0; i < iterations / 10; i++) {
+                codec.decode(codec.encode(sample));
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                encoded = codec.encode(sample);
+            }
+            long encodeNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                codec.decode(encoded);
+            }
+            long decodeNanos = System.nanoTime() - start;
+
+            results.add(new BenchmarkResult(codec.name(), encoded.length,
+                encodeNanos / 1000.0 / iterations, decodeNanos / 1000.0 / iterations));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,156 @@
+package com.vanillaplus.rpg.data;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Loads player profiles in the background while players are still logging in
+ *
+ * The login is accepted long before the player joins the world, so the disk read can run on a
+ * loader thread and JOIN only picks up the finished result. If the load is not done in time the
+ * caller falls back to a normal synchronous read.
+ */
+public class ProfilePreloader {
+    // Preloads for logins that never reach JOIN are dropped after this long
+    private static final long EXPIRY_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final int LOADER_THREADS = 2;
+
+    private record Preload(CompletableFuture<PlayerProfile> future, long startedNanos) {}
+
+    private static final Map<UUID, Preload> PRELOADS = new ConcurrentHashMap<>();
+
+    private static ExecutorService loader;
+    private static Function<UUID, PlayerProfile> reader;
+
+    // Stats
+    private static final AtomicLong started = new AtomicLong();
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong late = new AtomicLong();
+    private static final AtomicLong missing = new AtomicLong();
+    private static final AtomicLong expired = new AtomicLong();
+
+    /**
+     * Start the loader threads (call on server starting)
+     * @param profileReader reads a profile from storage, bypassing the cache
+     */
+    public static synchronized void start(Function<UUID, PlayerProfile> profileReader) {
+        reader = profileReader;
+        if (loader != null && !loader.isShutdown()) return;
+        AtomicInteger threadCount = new AtomicInteger();
+        loader = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "VanillaPlusRpg-Preload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Begin loading a profile for a player who is logging in
+     * Safe to call from network threads.
+     */
+    public static void preload(UUID uuid) {
+        ExecutorService executor = loader;
+        if (executor == null || executor.isShutdown()) return;
+
+        PRELOADS.computeIfAbsent(uuid, id -> {
+            started.incrementAndGet();
+            return new Preload(CompletableFuture.supplyAsync(() -> reader.apply(id), executor), System.nanoTime());
+        });
+    }
+
+    /**
+     * Take the preloaded profile for a joining player
+     * Returns null if there was no preload or it has not finished; the caller then loads it itself.
+     */
+    public static PlayerProfile take(UUID uuid) {
+        Preload preload = PRELOADS.remove(uuid);
+        if (preload == null) {
+            missing.incrementAndGet();
+            return null;
+        }
+        if (!preload.future().isDone()) {
+            // Still reading - loading twice is harmless, blocking the tick on the loader is not
+            late.incrementAndGet();
+            return null;
+        }
+        try {
+            PlayerProfile profile = preload.future().join();
+            hits.incrementAndGet();
+            return profile;
+        } catch (Exception e) {
+            VanillaPlusRpg.LOGGER.error("Preloading player data for {} failed", uuid, e);
+            missing.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Drop a preload whose data may be stale (e.g. the same player's old session just saved)
+     */
+    public static void invalidate(UUID uuid) {
+        PRELOADS.remove(uuid);
+    }
+
+    /**
+     * Forget preloads for logins that were abandoned
+     */
+    public static void expireStale() {
+        long now = System.nanoTime();
+        PRELOADS.entrySet().removeIf(entry -> {
+            if (now - entry.getValue().startedNanos() < EXPIRY_NANOS) return false;
+            expired.incrementAndGet();
+            return true;
+        });
+    }
+
+    /**
+     * Stop the loader threads (call on server stopped)
+     */
+    public static synchronized void stop() {
+        if (loader == null) return;
+        loader.shutdownNow();
+        loader = null;
+        PRELOADS.clear();
+    }
+
+    // ========== STATS ==========
+
+    public static long getStarted() {
+        return started.get();
+    }
+
+    /**
+     * Joins that found their profile already loaded
+     */
+    public static long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Joins that arrived before their preload finished
+     */
+    public static long getLate() {
+        return late.get();
+    }
+
+    /**
+     * Profile loads with no usable preload
+     */
+    public static long getMissing() {
+        return missing.get();
+    }
+
+    public static long getExpired() {
+        return expired.get();
+    }
+}
@@ -0,0 +1,426 @@
+package com.vanillaplus.rpg.data;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only player data store
+ *
+ * Every save appends a record to the active segment file (segment-NNNNNN.log) and updates an
+ * in-memory UUID -> location index. Segments are capped in size; once a sealed segment is mostly
+ * superseded records, compaction copies its live records forward and deletes it.
+ * The index is checkpointed on close and after compaction, so startup only scans records
+ * written after the checkpoint.
+ *
+ * Record layout: magic(int) uuidMost(long) uuidLeast(long) length(int) crc32(int) payload
+ */
+public class SegmentedPlayerDataStore implements PlayerDataStore {
+    public static final String NAME = "segmented";
+
+    private static final int RECORD_MAGIC = 0x56505231; // "VPR1"
+    private static final int HEADER_SIZE = 4 + 8 + 8 + 4 + 4;
+    private static final int CHECKPOINT_MAGIC = 0x56504931; // "VPI1"
+    private static final String CHECKPOINT_FILE = "index.ckpt";
+    // magic, segment, offset, count / uuid, segment, offset, length
+    private static final int CHECKPOINT_HEADER_SIZE = 20;
+    private static final int CHECKPOINT_ENTRY_SIZE = 32;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    // Start a new segment after 8 MiB
+    private static final long MAX_SEGMENT_SIZE = 8L * 1024 * 1024;
+
+    // Compact a sealed segment once less than half of it is still live
+    private static final double COMPACT_LIVE_RATIO = 0.5;
+
+    /**
+     * Where a player's newest record lives
+     */
+    private record Location(int segment, long offset, int length) {
+        long recordSize() {
+            return HEADER_SIZE + length;
+        }
+    }
+
+    private final Path dir;
+    private final Map<UUID, Location> index = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> liveBytes = new ConcurrentHashMap<>();
+
+    // Open segment channels; replaced only under the write lock
+    private final Map<Integer, FileChannel> channels = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Writer state (writer thread only)
+    private int activeSegment;
+    private FileChannel active;
+    private long activeSize;
+    private long compactedSegments = 0;
+
+    public SegmentedPlayerDataStore(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        open();
+    }
+
+    // ========== STARTUP ==========
+
+    private Path getSegmentPath(int segment) {
+        return dir.resolve(SEGMENT_PREFIX + String.format("%06d", segment) + SEGMENT_SUFFIX);
+    }
+
+    private FileChannel openChannel(int segment) throws IOException {
+        return FileChannel.open(getSegmentPath(segment),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Open all segments and rebuild the index from the checkpoint plus a tail scan
+     */
+    private void open() throws IOException {
+        List<Integer> segments = listSegments();
+        if (segments.isEmpty()) {
+            segments.add(1);
+        }
+        for (int segment : segments) {
+            channels.put(segment, openChannel(segment));
+        }
+
+        int scanFromSegment = segments.get(0);
+        long scanFromOffset = 0;
+
+        long[] checkpoint = loadCheckpoint();
+        if (checkpoint != null && channels.containsKey((int) checkpoint[0])) {
+            scanFromSegment = (int) checkpoint[0];
+            scanFromOffset = checkpoint[1];
+        } else {
+            index.clear();
+        }
+
+        int last = segments.get(segments.size() - 1);
+        for (int segment : segments) {
+            if (segment < scanFromSegment) continue;
+            scanSegment(segment, segment == scanFromSegment ? scanFromOffset : 0, segment == last);
+        }
+
+        activeSegment = last;
+        active = channels.get(last);
+        activeSize = active.size();
+
+        for (Location location : index.values()) {
+            liveBytes.merge(location.segment(), location.recordSize(), Long::sum);
+        }
+        VanillaPlusRpg.LOGGER.info("Opened segmented player data: {} profiles in {} segments", index.size(), channels.size());
+    }
+
+    private List<Integer> listSegments() throws IOException {
+        List<Integer> segments = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        segments.add(Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+                    } catch (NumberFormatException e) {
+                        // Not a segment
+                    }
+                }
+            });
+        }
+        segments.sort(Integer::compare);
+        return segments;
+    }
+
+    /**
+     * Read records from a segment into the index
+     * A torn record at the end of the last segment (crash mid-append) is cut off.
+     */
+    private void scanSegment(int segment, long fromOffset, boolean isLast) throws IOException {
+        FileChannel channel = channels.get(segment);
+        long size = channel.size();
+        long position = fromOffset;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        while (position + HEADER_SIZE <= size) {
+            header.clear();
+            readFully(channel, header, position);
+            header.flip();
+            int magic = header.getInt();
+            UUID uuid = new UUID(header.getLong(), header.getLong());
+            int length = header.getInt();
+            int crc = header.getInt();
+            if (magic != RECORD_MAGIC || length < 0 || position + HEADER_SIZE + length > size) break;
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, position + HEADER_SIZE);
+            if (checksum(payload.array()) != crc) break;
+
+            index.put(uuid, new Location(segment, position, length));
+            position += HEADER_SIZE + length;
+        }
+
+        if (position < size) {
+            VanillaPlusRpg.LOGGER.warn("Player data segment {} has {} unreadable bytes at offset {}", segment, size - position, position);
+            if (isLast) {
+                channel.truncate(position);
+            }
+        }
+    }
+
+    /**
+     * Load the checkpointed index
+     * @return {segment, offset} the checkpoint covers, or null if missing/invalid
+     */
+    private long[] loadCheckpoint() {
+        Path path = dir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(path)) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC) return null;
+            int segment = in.readInt();
+            long offset = in.readLong();
+            int count = in.readInt();
+            // A torn or corrupt count must not size the map; fall back to scanning the segments
+            if (offset < 0 || count < 0 || count > (Files.size(path) - CHECKPOINT_HEADER_SIZE) / CHECKPOINT_ENTRY_SIZE) {
+                VanillaPlusRpg.LOGGER.warn("Ignoring corrupt player data index checkpoint");
+                return null;
+            }
+            Map<UUID, Location> loaded = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                UUID uuid = new UUID(in.readLong(), in.readLong());
+                Location location = new Location(in.readInt(), in.readLong(), in.readInt());
+                if (!channels.containsKey(location.segment()) || location.offset() < 0 || location.length() < 0) return null;
+                loaded.put(uuid, location);
+            }
+            index.putAll(loaded);
+            return new long[]{segment, offset};
+        } catch (IOException e) {
+            VanillaPlusRpg.LOGGER.warn("Ignoring unreadable player data index checkpoint", e);
+            return null;
+        }
+    }
+
+    /**
+     * Write the index and the position it covers, atomically replacing the old checkpoint
+     */
+    private void writeCheckpoint() throws IOException {
+        Map<UUID, Location> snapshot = new HashMap<>(index);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(CHECKPOINT_HEADER_SIZE + snapshot.size() * CHECKPOINT_ENTRY_SIZE);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(activeSegment);
+            out.writeLong(activeSize);
+            out.writeInt(snapshot.size());
+            for (Map.Entry<UUID, Location> entry : snapshot.entrySet()) {
+                out.writeLong(entry.getKey().getMostSignificantBits());
+                out.writeLong(entry.getKey().getLeastSignificantBits());
+                out.writeInt(entry.getValue().segment());
+                out.writeLong(entry.getValue().offset());
+                out.writeInt(entry.getValue().length());
+            }
+        }
+        AtomicFiles.write(dir.resolve(CHECKPOINT_FILE), bytes.toByteArray());
+    }
+
+    // ========== READ / WRITE ==========
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public byte[] read(UUID uuid) throws IOException {
+        lock.readLock().lock();
+        try {
+            Location location = index.get(uuid);
+            if (location == null) return null;
+            return readPayload(location);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private byte[] readPayload(Location location) throws IOException {
+        ByteBuffer payload = ByteBuffer.allocate(location.length());
+        readFully(channels.get(location.segment()), payload, location.offset() + HEADER_SIZE);
+        return payload.array();
+    }
+
+    @Override
+    public void write(UUID uuid, byte[] data) throws IOException {
+        if (activeSize > 0 && activeSize + HEADER_SIZE + data.length > MAX_SEGMENT_SIZE) {
+            rotate();
+        }
+
+        ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + data.length);
+        record.putInt(RECORD_MAGIC);
+        record.putLong(uuid.getMostSignificantBits());
+        record.putLong(uuid.getLeastSignificantBits());
+        record.putInt(data.length);
+        record.putInt(checksum(data));
+        record.put(data);
+        record.flip();
+
+        long offset = activeSize;
+        while (record.hasRemaining()) {
+            active.write(record, offset + record.position());
+        }
+        active.force(false);
+        activeSize += HEADER_SIZE + data.length;
+
+        // Publish only after the bytes are on disk
+        Location location = new Location(activeSegment, offset, data.length);
+        Location previous = index.put(uuid, location);
+        liveBytes.merge(activeSegment, location.recordSize(), Long::sum);
+        if (previous != null) {
+            liveBytes.merge(previous.segment(), -previous.recordSize(), Long::sum);
+        }
+    }
+
+    /**
+     * Seal the active segment and start a new one
+     */
+    private void rotate() throws IOException {
+        lock.writeLock().lock();
+        try {
+            activeSegment++;
+            active = openChannel(activeSegment);
+            channels.put(activeSegment, active);
+            activeSize = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Set<UUID> listPlayers() {
+        return Set.copyOf(index.keySet());
+    }
+
+    // ========== COMPACTION ==========
+
+    /**
+     * Compact sealed segments that are mostly superseded records
+     */
+    @Override
+    public void maintain() throws IOException {
+        boolean compacted = false;
+        for (int segment : new TreeMap<>(channels).keySet()) {
+            if (segment == activeSegment) continue;
+            long size = channels.get(segment).size();
+            long live = liveBytes.getOrDefault(segment, 0L);
+            if (size == 0 || live < size * COMPACT_LIVE_RATIO) {
+                compactSegment(segment);
+                compacted = true;
+            }
+        }
+        if (compacted) {
+            writeCheckpoint();
+        }
+    }
+
+    /**
+     * Copy the live records of a segment into the active segment and delete it
+     */
+    private void compactSegment(int segment) throws IOException {
+        List<Map.Entry<UUID, Location>> live = new ArrayList<>();
+        for (Map.Entry<UUID, Location> entry : index.entrySet()) {
+            if (entry.getValue().segment() == segment) {
+                live.add(Map.entry(entry.getKey(), entry.getValue()));
+            }
+        }
+
+        for (Map.Entry<UUID, Location> entry : live) {
+            write(entry.getKey(), readPayload(entry.getValue()));
+        }
+
+        lock.writeLock().lock();
+        try {
+            FileChannel channel = channels.remove(segment);
+            if (channel != null) {
+                channel.close();
+            }
+            Files.deleteIfExists(getSegmentPath(segment));
+            liveBytes.remove(segment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        compactedSegments++;
+        VanillaPlusRpg.LOGGER.debug("Compacted player data segment {} ({} live records moved)", segment, live.size());
+    }
+
+    // ========== STATS / CLOSE ==========
+
+    @Override
+    public String describe() {
+        long total = 0;
+        int segments;
+        lock.readLock().lock();
+        try {
+            segments = channels.size();
+            for (FileChannel channel : channels.values()) {
+                total += channel.size();
+            }
+        } catch (IOException e) {
+            // Size unavailable - report what we have
+        } finally {
+            lock.readLock().unlock();
+        }
+        long live = 0;
+        for (long bytes : liveBytes.values()) {
+            live += bytes;
+        }
+        return "%s (%d segments, %d KB, %.0f%% live, %d compacted)".formatted(
+            NAME, segments, total / 1024, total == 0 ? 100.0 : live * 100.0 / total, compactedSegments);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            writeCheckpoint();
+            for (FileChannel channel : channels.values()) {
+                channel.close();
+            }
+            channels.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ========== HELPERS ==========
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) throw new IOException("Unexpected end of segment");
+        }
+    }
+
+    private static int checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,254 @@
+package com.vanillaplus.rpg.data;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Bulk operations over every stored player profile (/rpgadmin storage)
+ *
+ * Profiles are read and decoded in parallel on a fork-join pool, straight from the store, so
+ * offline players are included and the tick thread never waits. Progress and the final report
+ * are passed to callbacks, which the caller forwards to the server thread.
+ */
+public class StorageTool {
+    // Profiles per fork-join leaf task
+    private static final int BATCH_SIZE = 64;
+    // Progress is reported every 10%
+    private static final int PROGRESS_STEPS = 10;
+    // Failed profiles listed by name in the report
+    private static final int MAX_LISTED_FAILURES = 10;
+    // Width of the level histogram buckets
+    private static final int LEVEL_BUCKET = 10;
+
+    public enum Operation {
+        // Decode everything and report totals
+        STATS,
+        // Decode everything and check the values, listing broken profiles
+        VERIFY,
+        // Rewrite profiles that are not in the configured codec's format
+        MIGRATE
+    }
+
+    /**
+     * Totals for a range of profiles, merged up the fork-join tree
+     */
+    public static class Report {
+        public int profiles = 0;
+        public int failed = 0;
+        public int invalid = 0;
+        public int converted = 0;
+        public int skippedLoaded = 0;
+        public long bytes = 0;
+        public long moneySupply = 0;
+        public long richest = 0;
+        // Bucket start level -> players
+        public final TreeMap<Integer, Integer> levelHistogram = new TreeMap<>();
+        // Codec name -> profiles stored in that format
+        public final TreeMap<String, Integer> formats = new TreeMap<>();
+        public final List<String> problems = new ArrayList<>();
+
+        void merge(Report other) {
+            profiles += other.profiles;
+            failed += other.failed;
+            invalid += other.invalid;
+            converted += other.converted;
+            skippedLoaded += other.skippedLoaded;
+            bytes += other.bytes;
+            moneySupply += other.moneySupply;
+            richest = Math.max(richest, other.richest);
+            other.levelHistogram.forEach((bucket, count) -> levelHistogram.merge(bucket, count, Integer::sum));
+            other.formats.forEach((format, count) -> formats.merge(format, count, Integer::sum));
+            for (String problem : other.problems) {
+                if (problems.size() < MAX_LISTED_FAILURES) problems.add(problem);
+            }
+        }
+    }
+
+    private static final AtomicBoolean RUNNING = new AtomicBoolean(false);
+
+    /**
+     * Start an operation in the background
+     * @return false if another storage operation is still running
+     */
+    public static boolean start(Operation operation, Consumer<String> progress, Consumer<Report> done) {
+        if (!RUNNING.compareAndSet(false, true)) return false;
+
+        PlayerDataStore store = PlayerDataManager.getStore();
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+        pool.execute(() -> {
+            try {
+                List<UUID> players = new ArrayList<>(store.listPlayers());
+                Collections.sort(players);
+                progress.accept("Scanning " + players.size() + " player profiles (" + store.name() + " storage)...");
+
+                AtomicInteger processed = new AtomicInteger();
+                Batch root = new Batch(operation, store, players, 0, players.size(), processed, progress);
+                done.accept(pool.invoke(root));
+            } catch (Exception e) {
+                VanillaPlusRpg.LOGGER.error("Storage {} failed", operation, e);
+                progress.accept("Failed: " + e.getMessage());
+            } finally {
+                RUNNING.set(false);
+                pool.shutdown();
+            }
+        });
+        return true;
+    }
+
+    public static boolean isRunning() {
+        return RUNNING.get();
+    }
+
+    /**
+     * A range of the player list, split in half until it is small enough to process directly
+     */
+    private static class Batch extends RecursiveTask<Report> {
+        private final Operation operation;
+        private final PlayerDataStore store;
+        private final List<UUID> players;
+        private final int from;
+        private final int to;
+        private final AtomicInteger processed;
+        private final Consumer<String> progress;
+
+        Batch(Operation operation, PlayerDataStore store, List<UUID> players, int from, int to,
+              AtomicInteger processed, Consumer<String> progress) {
+            this.operation = operation;
+            this.store = store;
+            this.players = players;
+            this.from = from;
+            this.to = to;
+            this.processed = processed;
+            this.progress = progress;
+        }
+
+        @Override
+        protected Report compute() {
+            if (to - from > BATCH_SIZE) {
+                int middle = (from + to) >>> 1;
+                Batch left = new Batch(operation, store, players, from, middle, processed, progress);
+                Batch right = new Batch(operation, store, players, middle, to, processed, progress);
+                left.fork();
+                Report report = right.compute();
+                report.merge(left.join());
+                return report;
+            }
+
+            Report report = new Report();
+            for (int i = from; i < to; i++) {
+                process(players.get(i), report);
+            }
+            reportProgress(to - from);
+            return report;
+        }
+
+        private void process(UUID uuid, Report report) {
+            PlayerProfile profile;
+            byte[] data;
+            try {
+                data = store.read(uuid);
+                if (data == null) return; // Removed since the listing
+                report.profiles++;
+                profile = ProfileCodecs.decode(data);
+            } catch (Exception e) {
+                report.failed++;
+                report.problems.add(uuid + ": " + e.getMessage());
+                return;
+            }
+
+            report.bytes += data.length;
+            report.moneySupply += profile.getMoney();
+            report.richest = Math.max(report.richest, profile.getMoney());
+            int bucket = (profile.getRpgLevel() / LEVEL_BUCKET) * LEVEL_BUCKET;
+            report.levelHistogram.merge(bucket, 1, Integer::sum);
+            report.formats.merge(formatOf(data), 1, Integer::sum);
+
+            if (operation == Operation.VERIFY) {
+                String problem = checkValues(profile);
+                if (problem != null) {
+                    report.invalid++;
+                    report.problems.add(uuid + ": " + problem);
+                }
+            } else if (operation == Operation.MIGRATE && !ProfileCodecs.getActive().canDecode(data)) {
+                migrate(uuid, report);
+            }
+        }
+
+        /**
+         * Rewrite one profile in the active codec
+         *
+         * Runs under the account lock, which every load and edit takes too, so no offline edit can
+         * land between the check and the submit. The profile is re-read there, since an edit may
+         * have been saved after the first read.
+         */
+        private void migrate(UUID uuid, Report report) {
+            ReentrantLock lock = AccountService.lockFor(uuid);
+            lock.lock();
+            try {
+                // Loaded profiles may be newer in memory - they convert on their next save anyway
+                if (PlayerDataManager.getProfileCache().peek(uuid) != null || PersistenceExecutor.getPendingSnapshot(uuid) != null) {
+                    report.skippedLoaded++;
+                    return;
+                }
+                byte[] current = store.read(uuid);
+                if (current == null || ProfileCodecs.getActive().canDecode(current)) return;
+                PersistenceExecutor.submit(uuid, ProfileCodecs.decode(current));
+                report.converted++;
+            } catch (Exception e) {
+                report.failed++;
+                report.problems.add(uuid + ": " + e.getMessage());
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void reportProgress(int count) {
+            int total = players.size();
+            int before = processed.getAndAdd(count);
+            int after = before + count;
+            int stepBefore = before * PROGRESS_STEPS / total;
+            int stepAfter = after * PROGRESS_STEPS / total;
+            if (stepAfter > stepBefore && after < total) {
+                progress.accept(after + "/" + total + " (" + (stepAfter * 100 / PROGRESS_STEPS) + "%)");
+            }
+        }
+    }
+
+    private static String formatOf(byte[] data) {
+        if (ProfileCodecs.BINARY.canDecode(data)) return ProfileCodecs.BINARY.name();
+        if (ProfileCodecs.NBT.canDecode(data)) return ProfileCodecs.NBT.name();
+        return "unknown";
+    }
+
+    /**
+     * Sanity checks beyond what decoding already clamps
+     */
+    private static String checkValues(PlayerProfile profile) {
+        if (profile.getRpgXp() >= PlayerDataManager.getXpRequired(profile.getRpgLevel())) {
+            return "XP " + profile.getRpgXp() + " is past level " + profile.getRpgLevel();
+        }
+        if (profile.getDailyEarnings() < 0) {
+            return "negative daily earnings " + profile.getDailyEarnings();
+        }
+        int invested = 0;
+        for (PlayerDataManager.Skill skill : PlayerDataManager.Skill.values()) {
+            invested += profile.getSkillLevel(skill);
+        }
+        // One skill point per level gained
+        if (invested + profile.getSkillPoints() > profile.getRpgLevel() - 1) {
+            return "more skill points than levels (" + (invested + profile.getSkillPoints()) + " for level " + profile.getRpgLevel() + ")";
+        }
+        return null;
+    }
+}
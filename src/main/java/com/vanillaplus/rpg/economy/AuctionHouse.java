@@ -0,0 +1,511 @@
+package com.vanillaplus.rpg.economy;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import com.vanillaplus.rpg.data.AccountService;
+import com.vanillaplus.rpg.data.EconomyJournal;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.storage.LevelResource;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Player-to-player auction house
+ *
+ * Players post limit orders: a sell order escrows the items, a buy order escrows price x quantity
+ * in money. Each item has its own OrderBook; whenever a book is crossed it waits in a queue and
+ * the end-of-tick matcher fills up to MATCHES_PER_TICK order pairs, oldest first, at the price of
+ * the order that was resting in the book. Sellers are paid straight to their balance, bought
+ * items wait in the buyer's stash until /ah collect.
+ *
+ * All state lives on the server thread. Every change is appended to an OrderLog, which is
+ * replayed on startup; it is fsynced together with the economy journal every tick. If a write
+ * to the log fails, the auction house stops taking orders, cancels, collections and fills until
+ * the next restart, since anything it did after that would be lost on replay.
+ */
+public class AuctionHouse {
+    private static final String FILE_NAME = "vanillaplusrpg_orders.log";
+
+    // Order pairs filled per tick across all books; the rest carries over to the next tick
+    private static final int MATCHES_PER_TICK = 256;
+    public static final int MAX_OPEN_ORDERS = 20;
+    public static final int MAX_ORDER_QUANTITY = 10_000;
+
+    private static final Map<Item, OrderBook> books = new HashMap<>();
+    // Open orders by id; ascending ids keep the placement order for the log rewrite
+    private static final TreeMap<Long, OrderBook.Order> orders = new TreeMap<>();
+    // Bought and cancelled items waiting for /ah collect
+    private static final Map<UUID, Map<Item, Integer>> stashes = new HashMap<>();
+    // Buyer refunds that didn't fit in the balance (overflow), paid out on /ah collect
+    private static final Map<UUID, Long> owed = new HashMap<>();
+    private static final ArrayDeque<OrderBook> matchQueue = new ArrayDeque<>();
+    private static long nextId = 1;
+
+    private static MinecraftServer server;
+    private static OrderLog log;
+    // Set when a log write fails (server or journal writer thread); cleared on restart
+    private static volatile boolean logFailed = false;
+
+    // Stats
+    private static long fillsThisSession = 0;
+
+    /**
+     * Replay the order log and reopen it for appending
+     */
+    public static void init(MinecraftServer minecraftServer) {
+        server = minecraftServer;
+        books.clear();
+        orders.clear();
+        stashes.clear();
+        owed.clear();
+        matchQueue.clear();
+        nextId = 1;
+        logFailed = false;
+
+        log = new OrderLog(server.getWorldPath(LevelResource.ROOT).resolve(FILE_NAME));
+        try {
+            int records = log.replay(new OrderLog.Listener() {
+                @Override
+                public void place(long id, UUID owner, Item item, boolean buy, long price, int quantity) {
+                    addOrder(new OrderBook.Order(id, owner, item, buy, price, quantity));
+                    nextId = Math.max(nextId, id + 1);
+                }
+
+                @Override
+                public void fill(long buyId, long sellId, int quantity, long price) {
+                    // Money moved when the fill happened; only the books and the stash are rebuilt
+                    OrderBook.Order bid = orders.get(buyId);
+                    OrderBook.Order ask = orders.get(sellId);
+                    if (bid == null || ask == null) return;
+                    applyFill(bid, ask, quantity);
+                }
+
+                @Override
+                public void cancel(long id) {
+                    OrderBook.Order order = orders.get(id);
+                    if (order != null) {
+                        removeOrder(order);
+                        if (!order.buy) addToStash(order.owner, order.item, order.remaining);
+                    }
+                }
+
+                @Override
+                public void collect(UUID owner) {
+                    stashes.remove(owner);
+                }
+
+                @Override
+                public void stash(UUID owner, Item item, int count) {
+                    addToStash(owner, item, count);
+                }
+
+                @Override
+                public void owe(UUID owner, long amount) {
+                    owed.merge(owner, amount, Long::sum);
+                }
+
+                @Override
+                public void paid(UUID owner, long amount) {
+                    long left = owed.getOrDefault(owner, 0L) - amount;
+                    if (left > 0) owed.put(owner, left);
+                    else owed.remove(owner);
+                }
+            });
+            log.rewrite(orders.values(), stashes, owed);
+            VanillaPlusRpg.LOGGER.info("Auction house restored {} open orders from {} log records", orders.size(), records);
+        } catch (IOException e) {
+            VanillaPlusRpg.LOGGER.error("Failed to load {}, the auction house is unavailable", FILE_NAME, e);
+            log = null;
+            return;
+        }
+
+        // Orders that crossed right before a shutdown still need matching
+        for (OrderBook book : books.values()) {
+            queueIfCrossed(book);
+        }
+    }
+
+    // ========== ORDERS ==========
+
+    /**
+     * Post a buy or sell order for a player, escrowing the money or the items
+     * @return true if the order was placed
+     */
+    public static boolean placeOrder(ServerPlayer player, Item item, boolean buy, long price, int quantity) {
+        if (!isAvailable()) {
+            player.sendSystemMessage(Component.literal("§cThe auction house is unavailable!"));
+            return false;
+        }
+        if (item == Items.AIR || price <= 0 || quantity <= 0 || quantity > MAX_ORDER_QUANTITY) {
+            player.sendSystemMessage(Component.literal(
+                "§cInvalid order! Price must be positive and quantity between 1 and " + MAX_ORDER_QUANTITY + "."));
+            return false;
+        }
+        UUID uuid = player.getUUID();
+        if (getOrdersOf(uuid).size() >= MAX_OPEN_ORDERS) {
+            player.sendSystemMessage(Component.literal(
+                "§cYou already have " + MAX_OPEN_ORDERS + " open orders! Cancel one first."));
+            return false;
+        }
+        long total;
+        try {
+            total = Math.multiplyExact(price, quantity);
+        } catch (ArithmeticException e) {
+            player.sendSystemMessage(Component.literal("§cThat order is too large!"));
+            return false;
+        }
+
+        String itemName = item.getName(item.getDefaultInstance()).getString();
+        if (buy) {
+            if (!AccountService.tryDebit(uuid, total, EconomyJournal.Reason.AUCTION)) {
+                player.sendSystemMessage(Component.literal(
+                    "§cNot enough money! Need §6$%,d".formatted(total)));
+                return false;
+            }
+        } else {
+            if (countPlainItems(player, item) < quantity) {
+                player.sendSystemMessage(Component.literal(
+                    "§cYou don't have " + quantity + "x " + itemName + " §c(enchanted, named or damaged items can't be listed)"));
+                return false;
+            }
+            removePlainItems(player, item, quantity);
+        }
+
+        OrderBook.Order order = new OrderBook.Order(nextId++, uuid, item, buy, price, quantity);
+        if (!writeLog(() -> log.appendPlace(order))) {
+            // An order missing from the log would vanish with its escrow on restart - hand the escrow back
+            if (!buy) {
+                giveItems(player, item, quantity);
+            } else if (!AccountService.credit(uuid, total, EconomyJournal.Reason.AUCTION)) {
+                VanillaPlusRpg.LOGGER.error("Could not refund ${} to {} for a rejected auction order", total, uuid);
+            }
+            player.sendSystemMessage(Component.literal("§cThe auction house is unavailable!"));
+            return false;
+        }
+        OrderBook book = addOrder(order);
+        queueIfCrossed(book);
+
+        player.sendSystemMessage(Component.literal(
+            "§a✓ %s order §f#%d§a: %dx %s at §6$%,d §aeach".formatted(buy ? "Buy" : "Sell", order.id, quantity, itemName, price)));
+        return true;
+    }
+
+    /**
+     * Cancel one of the player's open orders; money is refunded, items go to the stash
+     */
+    public static boolean cancelOrder(ServerPlayer player, long id) {
+        if (!isAvailable()) {
+            player.sendSystemMessage(Component.literal("§cThe auction house is unavailable!"));
+            return false;
+        }
+        OrderBook.Order order = orders.get(id);
+        if (order == null || !order.owner.equals(player.getUUID())) {
+            player.sendSystemMessage(Component.literal("§cYou have no open order #" + id + "!"));
+            return false;
+        }
+        if (order.buy && !AccountService.credit(order.owner, order.price * order.remaining, EconomyJournal.Reason.AUCTION)) {
+            // The escrow stays in the order rather than vanishing
+            player.sendSystemMessage(Component.literal("§cYour balance is too full to take the refund! Order §f#" + id + " §cstays open."));
+            return false;
+        }
+        removeOrder(order);
+        if (!order.buy) {
+            addToStash(order.owner, order.item, order.remaining);
+        }
+        writeLog(() -> log.appendCancel(id));
+
+        player.sendSystemMessage(Component.literal("§a✓ Cancelled order §f#" + id
+            + (order.buy ? "§a, money refunded." : "§a, items are waiting in §f/ah collect§a.")));
+        return true;
+    }
+
+    /**
+     * Hand the player everything in their stash; what doesn't fit is dropped at their feet
+     * @return number of items handed out
+     */
+    public static int collect(ServerPlayer player) {
+        if (!isAvailable()) return 0;
+        Map<Item, Integer> stash = stashes.remove(player.getUUID());
+        if (stash == null) return 0;
+
+        int total = 0;
+        for (Map.Entry<Item, Integer> entry : stash.entrySet()) {
+            giveItems(player, entry.getKey(), entry.getValue());
+            total += entry.getValue();
+        }
+        writeLog(() -> log.appendCollect(player.getUUID()));
+        return total;
+    }
+
+    private static void giveItems(ServerPlayer player, Item item, int count) {
+        int left = count;
+        int maxStack = item.getDefaultInstance().getMaxStackSize();
+        while (left > 0) {
+            ItemStack stack = new ItemStack(item, Math.min(left, maxStack));
+            left -= stack.getCount();
+            if (!player.getInventory().add(stack)) {
+                player.drop(stack, false);
+            }
+        }
+    }
+
+    /**
+     * Pay out refunds held back because the player's balance was full
+     * @return amount paid, 0 if none was owed or it still doesn't fit
+     */
+    public static long collectRefunds(ServerPlayer player) {
+        if (!isAvailable()) return 0;
+        UUID uuid = player.getUUID();
+        Long amount = owed.get(uuid);
+        if (amount == null) return 0;
+        if (!AccountService.credit(uuid, amount, EconomyJournal.Reason.AUCTION)) {
+            player.sendSystemMessage(Component.literal("§cYour balance is too full to take §6$%,d §cin refunds!".formatted(amount)));
+            return 0;
+        }
+        owed.remove(uuid);
+        writeLog(() -> log.appendPaid(uuid, amount));
+        return amount;
+    }
+
+    // ========== MATCHING ==========
+
+    /**
+     * Fill crossed books (bounded per tick) and write this tick's log records
+     * Must run before EconomyJournal.endTick() in the same tick.
+     */
+    public static void tick() {
+        if (!isAvailable()) return;
+        int budget = MATCHES_PER_TICK;
+        while (budget > 0 && !matchQueue.isEmpty()) {
+            OrderBook book = matchQueue.peekFirst();
+            if (!book.isCrossed() || !matchOnce(book)) {
+                matchQueue.pollFirst();
+                book.queued = false;
+                if (book.isEmpty()) books.remove(book.getItem());
+                continue;
+            }
+            budget--;
+        }
+
+        // Make this tick's records durable in the same group commit as its escrow and payout
+        // journal records; the fsync runs on the journal writer, just ahead of the journal's own
+        OrderLog current = log;
+        writeLog(() -> {
+            if (current.flush()) {
+                EconomyJournal.beforeCommit(() -> writeLog(current::force));
+            }
+        });
+    }
+
+    /**
+     * Fill the best bid against the best ask at the resting order's price
+     * @return false if the trade couldn't settle
+     */
+    private static boolean matchOnce(OrderBook book) {
+        OrderBook.Order bid = book.bestBid();
+        OrderBook.Order ask = book.bestAsk();
+        // The older order was resting in the book; the newer one crossed it and takes its price
+        long price = bid.id < ask.id ? bid.price : ask.price;
+        int quantity = Math.min(bid.remaining, ask.remaining);
+
+        // Can't overflow: price <= bid price, and bid price x quantity was checked when it was placed
+        if (!AccountService.credit(ask.owner, price * quantity, EconomyJournal.Reason.AUCTION)) {
+            // The seller's balance is full; leave the book until something changes
+            VanillaPlusRpg.LOGGER.warn("Auction fill of order #{} skipped, seller balance would overflow", ask.id);
+            return false;
+        }
+        applyFill(bid, ask, quantity);
+        writeLog(() -> log.appendFill(bid.id, ask.id, quantity, price));
+        if (bid.price > price) {
+            // The buyer escrowed their own limit price; return the difference, or hold it if it doesn't fit
+            long refund = (bid.price - price) * quantity;
+            if (!AccountService.credit(bid.owner, refund, EconomyJournal.Reason.AUCTION)) {
+                owed.merge(bid.owner, refund, Long::sum);
+                writeLog(() -> log.appendOwe(bid.owner, refund));
+                notify(bid.owner, "§6[Auction] §cYour balance is too full for a §6$%,d §crefund - it waits in §f/ah collect".formatted(refund));
+            }
+        }
+        fillsThisSession++;
+
+        String itemName = book.getItem().getName(book.getItem().getDefaultInstance()).getString();
+        notify(ask.owner, "§6[Auction] §aSold §f%dx %s §afor §6$%,d".formatted(quantity, itemName, price * quantity));
+        notify(bid.owner, "§6[Auction] §aBought §f%dx %s §afor §6$%,d §7- /ah collect".formatted(quantity, itemName, price * quantity));
+        return true;
+    }
+
+    private static void applyFill(OrderBook.Order bid, OrderBook.Order ask, int quantity) {
+        bid.remaining -= quantity;
+        ask.remaining -= quantity;
+        addToStash(bid.owner, bid.item, quantity);
+        if (bid.remaining <= 0) removeOrder(bid);
+        if (ask.remaining <= 0) removeOrder(ask);
+    }
+
+    private static void notify(UUID uuid, String message) {
+        ServerPlayer player = server.getPlayerList().getPlayer(uuid);
+        if (player != null) {
+            player.sendSystemMessage(Component.literal(message));
+        }
+    }
+
+    // ========== BOOKKEEPING ==========
+
+    private static OrderBook addOrder(OrderBook.Order order) {
+        OrderBook book = books.computeIfAbsent(order.item, OrderBook::new);
+        book.add(order);
+        orders.put(order.id, order);
+        return book;
+    }
+
+    private static void removeOrder(OrderBook.Order order) {
+        orders.remove(order.id);
+        OrderBook book = books.get(order.item);
+        if (book == null) return;
+        book.remove(order);
+        if (book.isEmpty() && !book.queued) {
+            books.remove(order.item);
+        }
+    }
+
+    private static void queueIfCrossed(OrderBook book) {
+        if (!book.queued && book.isCrossed()) {
+            book.queued = true;
+            matchQueue.addLast(book);
+        }
+    }
+
+    private static void addToStash(UUID owner, Item item, int count) {
+        if (count <= 0) return;
+        stashes.computeIfAbsent(owner, uuid -> new LinkedHashMap<>()).merge(item, count, Integer::sum);
+    }
+
+    /**
+     * Only undamaged items without custom components can be listed, since orders trade by item type
+     */
+    private static boolean isPlain(ItemStack stack) {
+        return !stack.isEmpty() && ItemStack.isSameItemSameComponents(stack, stack.getItem().getDefaultInstance());
+    }
+
+    private static int countPlainItems(ServerPlayer player, Item item) {
+        int count = 0;
+        for (int i = 0; i < player.getInventory().getContainerSize(); i++) {
+            ItemStack stack = player.getInventory().getItem(i);
+            if (stack.is(item) && isPlain(stack)) {
+                count += stack.getCount();
+            }
+        }
+        return count;
+    }
+
+    private static void removePlainItems(ServerPlayer player, Item item, int amount) {
+        int remaining = amount;
+        for (int i = 0; i < player.getInventory().getContainerSize() && remaining > 0; i++) {
+            ItemStack stack = player.getInventory().getItem(i);
+            if (stack.is(item) && isPlain(stack)) {
+                int toRemove = Math.min(remaining, stack.getCount());
+                stack.shrink(toRemove);
+                remaining -= toRemove;
+            }
+        }
+    }
+
+    private interface LogWrite {
+        void run() throws IOException;
+    }
+
+    /**
+     * Run a log write; a failure takes the auction house offline until restart
+     * @return whether it succeeded
+     */
+    private static boolean writeLog(LogWrite write) {
+        try {
+            write.run();
+            return true;
+        } catch (IOException e) {
+            logFailed = true;
+            VanillaPlusRpg.LOGGER.error("Failed to write {}, the auction house is unavailable until restart", FILE_NAME, e);
+            return false;
+        }
+    }
+
+    /**
+     * Whether the log loaded and every write since has succeeded
+     */
+    public static boolean isAvailable() {
+        return log != null && !logFailed;
+    }
+
+    // ========== LIFECYCLE ==========
+
+    /**
+     * Make every logged record durable (world save)
+     */
+    public static void save() {
+        if (log != null) writeLog(log::sync);
+    }
+
+    public static void shutdown() {
+        if (log != null) {
+            writeLog(log::close);
+            log = null;
+        }
+    }
+
+    // ========== QUERIES ==========
+
+    /**
+     * Book for an item, or null if it has no open orders
+     */
+    public static OrderBook getBook(Item item) {
+        return books.get(item);
+    }
+
+    /**
+     * A player's open orders, oldest first
+     */
+    public static List<OrderBook.Order> getOrdersOf(UUID uuid) {
+        List<OrderBook.Order> result = new ArrayList<>();
+        for (OrderBook.Order order : orders.values()) {
+            if (order.owner.equals(uuid)) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Uncollected items of a player (read-only view, empty if none)
+     */
+    public static Map<Item, Integer> getStash(UUID uuid) {
+        Map<Item, Integer> stash = stashes.get(uuid);
+        return stash != null ? Collections.unmodifiableMap(stash) : Map.of();
+    }
+
+    /**
+     * Refunds held for a player, 0 if none
+     */
+    public static long getOwed(UUID uuid) {
+        return owed.getOrDefault(uuid, 0L);
+    }
+
+    public static int getOpenOrderCount() {
+        return orders.size();
+    }
+
+    public static long getFillsThisSession() {
+        return fillsThisSession;
+    }
+}
@@ -0,0 +1,315 @@
+package com.vanillaplus.rpg.economy;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import com.vanillaplus.rpg.config.RpgConfig;
+import com.vanillaplus.rpg.data.AtomicFiles;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.storage.LevelResource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Supply and demand price multipliers
+ *
+ * Every trade adds its item count to the current time bucket of that item's sold or bought ring
+ * (one minute per bucket, one hour of history). All state lives in primitive arrays indexed by
+ * raw item id, so recording a trade is a couple of array writes with no allocation.
+ *
+ * The multipliers are not computed on lookup. Each tick a small slice of items is recomputed:
+ * net selling over the window pushes the target multiplier down, net buying pushes it up, and the
+ * multiplier moves a step toward the target. Once trading stops the window empties, the target
+ * returns to 1 and the price decays back to base.
+ *
+ * Each pass that changed a multiplier rebuilds the PriceQuote table once.
+ *
+ * Runs on the server thread only. The rings and multipliers are saved in the world folder.
+ */
+public class DemandTracker {
+    private static final String FILE_NAME = "vanillaplusrpg_demand.dat";
+    private static final int MAGIC = 0x56504431; // "VPD1"
+
+    // One bucket per minute, one hour of history
+    private static final int BUCKET_TICKS = 1200;
+    private static final int BUCKETS = 60;
+    // Items recomputed per tick; a full pass over ~1400 items takes about a second
+    private static final int RECOMPUTE_PER_TICK = 64;
+    // Time for a multiplier to close half the gap to its target (5 minutes)
+    private static final double HALF_LIFE_TICKS = 6000;
+
+    public static final double MIN_MULTIPLIER = 0.25;
+    public static final double MAX_MULTIPLIER = 2.0;
+
+    private static Path file;
+    private static int itemCount = 0;
+    // [id * BUCKETS + bucket] items sold to / bought from the server in that minute
+    private static int[] sold = new int[0];
+    private static int[] bought = new int[0];
+    // Window totals per item, kept in step with the rings
+    private static long[] soldTotal = new long[0];
+    private static long[] boughtTotal = new long[0];
+    private static double[] multipliers = new double[0];
+
+    // Ticks since tracking started, saved so bucket positions survive restarts
+    private static long clock = 0;
+    private static int recomputeCursor = 0;
+    // Whether any multiplier changed during the current recompute pass
+    private static boolean passChanged = false;
+    // Step toward the target per recompute pass, derived from the half-life and pass length
+    private static double step = 0;
+
+    /**
+     * Size the arrays for the item registry and load saved state (call on server started)
+     */
+    public static void init(MinecraftServer server) {
+        itemCount = BuiltInRegistries.ITEM.size();
+        sold = new int[itemCount * BUCKETS];
+        bought = new int[itemCount * BUCKETS];
+        soldTotal = new long[itemCount];
+        boughtTotal = new long[itemCount];
+        multipliers = new double[itemCount];
+        Arrays.fill(multipliers, 1.0);
+        clock = 0;
+        recomputeCursor = 0;
+
+        int passTicks = (itemCount + RECOMPUTE_PER_TICK - 1) / RECOMPUTE_PER_TICK;
+        step = 1.0 - Math.pow(0.5, passTicks / HALF_LIFE_TICKS);
+
+        file = server.getWorldPath(LevelResource.ROOT).resolve(FILE_NAME);
+        if (Files.exists(file)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+                int restored = read(in);
+                VanillaPlusRpg.LOGGER.info("Restored demand history for {} items", restored);
+            } catch (IOException e) {
+                VanillaPlusRpg.LOGGER.error("Failed to read {}, market demand starts fresh", FILE_NAME, e);
+            }
+        }
+    }
+
+    // ========== RECORDING ==========
+
+    /**
+     * Record items sold to the server
+     */
+    public static void recordSale(Item item, int count) {
+        int id = BuiltInRegistries.ITEM.getId(item);
+        if (id < 0 || id >= itemCount || count <= 0) return;
+        sold[id * BUCKETS + currentBucket()] += count;
+        soldTotal[id] += count;
+    }
+
+    /**
+     * Record items bought from the server
+     */
+    public static void recordPurchase(Item item, int count) {
+        int id = BuiltInRegistries.ITEM.getId(item);
+        if (id < 0 || id >= itemCount || count <= 0) return;
+        bought[id * BUCKETS + currentBucket()] += count;
+        boughtTotal[id] += count;
+    }
+
+    private static int currentBucket() {
+        return (int) ((clock / BUCKET_TICKS) % BUCKETS);
+    }
+
+    // ========== TICK ==========
+
+    /**
+     * Advance the clock and recompute the next slice of multipliers
+     */
+    public static void tick() {
+        if (itemCount == 0) return;
+        clock++;
+        if (clock % BUCKET_TICKS == 0) {
+            expireBucket(currentBucket());
+        }
+
+        PriceCatalog catalog = PriceCatalog.get();
+        double halfPriceValue = RpgConfig.get().demandHalfPriceValue;
+        int end = Math.min(itemCount, recomputeCursor + RECOMPUTE_PER_TICK);
+        for (int id = recomputeCursor; id < end; id++) {
+            passChanged |= recompute(catalog, id, halfPriceValue);
+        }
+        recomputeCursor = end == itemCount ? 0 : end;
+
+        // Publish the pass's changes in one go instead of rebuilding the quotes per item
+        if (recomputeCursor == 0 && passChanged) {
+            passChanged = false;
+            if (RpgConfig.get().dynamicPricing) {
+                PriceQuote.rebuild();
+            }
+        }
+    }
+
+    /**
+     * The bucket that just became current held the oldest minute - drop it from the totals
+     */
+    private static void expireBucket(int bucket) {
+        for (int id = 0; id < itemCount; id++) {
+            int slot = id * BUCKETS + bucket;
+            soldTotal[id] -= sold[slot];
+            boughtTotal[id] -= bought[slot];
+            sold[slot] = 0;
+            bought[slot] = 0;
+        }
+    }
+
+    private static boolean recompute(PriceCatalog catalog, int id, double halfPriceValue) {
+        double current = multipliers[id];
+        long net = soldTotal[id] - boughtTotal[id];
+        if (net == 0 && current == 1.0) return false;
+
+        Item item = BuiltInRegistries.ITEM.byId(id);
+        long unitPrice = catalog.getSellPrice(item);
+        if (unitPrice <= 0) unitPrice = Math.max(1, catalog.getBuyPrice(item));
+
+        // Every halfPriceValue of net sales over the window halves the price; net buying doubles it
+        double target = Math.pow(0.5, net * (double) unitPrice / halfPriceValue);
+        target = Math.max(MIN_MULTIPLIER, Math.min(MAX_MULTIPLIER, target));
+
+        double next = current + (target - current) * step;
+        // Snap once within a hundredth of a percent so idle items stop being recomputed
+        multipliers[id] = Math.abs(next - target) < 0.0001 ? target : next;
+        return multipliers[id] != current;
+    }
+
+    // ========== LOOKUPS ==========
+
+    /**
+     * Current demand multiplier for an item's buy and sell price (1.0 = base price)
+     */
+    public static double getMultiplier(Item item) {
+        if (!RpgConfig.get().dynamicPricing) return 1.0;
+        int id = BuiltInRegistries.ITEM.getId(item);
+        return id >= 0 && id < itemCount ? multipliers[id] : 1.0;
+    }
+
+    /**
+     * Items sold to the server over the last hour
+     */
+    public static long getSoldLastHour(Item item) {
+        int id = BuiltInRegistries.ITEM.getId(item);
+        return id >= 0 && id < itemCount ? soldTotal[id] : 0;
+    }
+
+    /**
+     * Items bought from the server over the last hour
+     */
+    public static long getBoughtLastHour(Item item) {
+        int id = BuiltInRegistries.ITEM.getId(item);
+        return id >= 0 && id < itemCount ? boughtTotal[id] : 0;
+    }
+
+    /**
+     * Items whose price moved furthest from base, biggest move first
+     */
+    public static List<Item> getBiggestMovers(int limit) {
+        if (!RpgConfig.get().dynamicPricing) return List.of();
+        List<Integer> moved = new ArrayList<>();
+        for (int id = 0; id < itemCount; id++) {
+            if (multipliers[id] != 1.0) moved.add(id);
+        }
+        moved.sort((a, b) -> Double.compare(Math.abs(Math.log(multipliers[b])), Math.abs(Math.log(multipliers[a]))));
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, moved.size()); i++) {
+            items.add(BuiltInRegistries.ITEM.byId(moved.get(i)));
+        }
+        return items;
+    }
+
+    // ========== PERSISTENCE ==========
+
+    /**
+     * Snapshot the state on the calling thread and write it on the persistence thread
+     * (called from MarketManager.save)
+     */
+    public static void save() {
+        if (file == null || itemCount == 0) return;
+        byte[] data;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            write(new DataOutputStream(bytes));
+            data = bytes.toByteArray();
+        } catch (IOException e) {
+            VanillaPlusRpg.LOGGER.error("Failed to encode market demand", e);
+            return;
+        }
+
+        AtomicFiles.writeInBackground(file, data);
+    }
+
+    /**
+     * Only items with history or a moved price are stored, keyed by item id so the file survives
+     * mods being added or removed
+     */
+    private static void write(DataOutputStream out) throws IOException {
+        int active = 0;
+        for (int id = 0; id < itemCount; id++) {
+            if (isActive(id)) active++;
+        }
+
+        out.writeInt(MAGIC);
+        out.writeLong(clock);
+        out.writeShort(BUCKETS);
+        out.writeInt(active);
+        for (int id = 0; id < itemCount; id++) {
+            if (!isActive(id)) continue;
+            out.writeUTF(BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(id)).toString());
+            out.writeDouble(multipliers[id]);
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                out.writeInt(sold[id * BUCKETS + bucket]);
+                out.writeInt(bought[id * BUCKETS + bucket]);
+            }
+        }
+        out.flush();
+    }
+
+    private static boolean isActive(int id) {
+        return soldTotal[id] != 0 || boughtTotal[id] != 0 || multipliers[id] != 1.0;
+    }
+
+    private static int read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("not a demand file");
+        long savedClock = in.readLong();
+        int buckets = in.readShort();
+        if (buckets != BUCKETS) {
+            // Different window layout - the history can't be mapped, start fresh
+            return 0;
+        }
+
+        int count = in.readInt();
+        int restored = 0;
+        for (int i = 0; i < count; i++) {
+            Identifier key = Identifier.tryParse(in.readUTF());
+            double multiplier = in.readDouble();
+            boolean known = key != null && BuiltInRegistries.ITEM.containsKey(key);
+            int id = known ? BuiltInRegistries.ITEM.getId(BuiltInRegistries.ITEM.getValue(key)) : -1;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                int soldCount = in.readInt();
+                int boughtCount = in.readInt();
+                if (id < 0) continue;
+                sold[id * BUCKETS + bucket] = soldCount;
+                bought[id * BUCKETS + bucket] = boughtCount;
+                soldTotal[id] += soldCount;
+                boughtTotal[id] += boughtCount;
+            }
+            if (id >= 0) {
+                multipliers[id] = Math.max(MIN_MULTIPLIER, Math.min(MAX_MULTIPLIER, multiplier));
+                restored++;
+            }
+        }
+        clock = savedClock;
+        return restored;
+    }
+}
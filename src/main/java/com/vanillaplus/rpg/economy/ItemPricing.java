@@ -3,6 +3,7 @@ package com.vanillaplus.rpg.economy;
 import net.minecraft.world.item.Item;
 import net.minecraft.world.item.Items;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -10,6 +11,8 @@ import java.util.Map;
  * Simple item pricing system (no tiers, no upgrades)
  * Buy price is what player pays, sell price is what player receives (80% of buy)
  * Inspired by shop mod but simplified for vanilla+ feel
+ * 
+ * These are the built-in defaults; look prices up through PriceCatalog, which also applies shop.json
  */
 public class ItemPricing {
     
@@ -487,10 +490,10 @@ public class ItemPricing {
     }
     
     /**
-     * Get all priced items
+     * Get all priced items (read-only view - the table never changes after class init)
      */
     public static Map<Item, PriceData> getAllPrices() {
-        return new HashMap<>(PRICES);
+        return Collections.unmodifiableMap(PRICES);
     }
     
     /**
@@ -1,133 +1,353 @@
 package com.vanillaplus.rpg.economy;
 
 import com.vanillaplus.rpg.VanillaPlusRpg;
-import com.vanillaplus.rpg.config.ShopConfig;
+import com.vanillaplus.rpg.config.RpgConfig;
+import com.vanillaplus.rpg.data.AtomicFiles;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
 import net.minecraft.network.chat.Component;
+import net.minecraft.resources.Identifier;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.tags.TagKey;
 import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.storage.LevelResource;
 
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.Set;
 
 /**
  * Dynamic Market Manager
- * Handles the "hot" and "cheap" items that rotate daily
+ * Handles the "hot" and "cheap" items that rotate daily, on top of the DemandTracker
+ * supply/demand multipliers
+ * 
+ * Each day fills marketHotSlots and marketCheapSlots from weighted alias tables (marketWeights,
+ * per item id or "#tag"), never picking an item for both and skipping what the regular draws of
+ * the previous marketNoRepeatDays days picked. Those draws are recomputed from their day's seed
+ * rather than remembered, so the market of a day depends only on the world seed, the day, the
+ * admin rerolls of that day, the price catalog and the market config.
  */
 public class MarketManager {
-    private static final Random RANDOM = new Random();
-    
     // Current market status
-    private static Item hotItem = null;       // 2x sell price
-    private static Item cheapItem = null;     // 50% buy price
+    private static volatile List<Item> hotItems = List.of();       // 2x sell price
+    private static volatile List<Item> cheapItems = List.of();     // 50% buy price
     
     // Multipliers
     public static final double HOT_SELL_MULTIPLIER = 2.0;
     public static final double CHEAP_BUY_MULTIPLIER = 0.5;
     
-    // Last rotation time (in game ticks)
-    private static long lastRotationTime = -1;
-    
     // Rotation interval (24000 ticks = 1 Minecraft day)
     private static final long ROTATION_INTERVAL = 24000;
     
+    private static final String FILE_NAME = "vanillaplusrpg_market.dat";
+    private static final int MAGIC = 0x56504D32; // "VPM2"
+    private static Path file;
+    
+    // Day the current picks belong to, and the day time window it covers
+    private static long rotationDay = Long.MIN_VALUE;
+    private static long rotationDayStart = Long.MIN_VALUE;
+    private static long nextRotationTime = Long.MIN_VALUE;
+    
+    // Draws per slot before the no-repeat rule is relaxed (only matters with very few candidates)
+    private static final int MAX_DRAWS_PER_SLOT = 64;
+    
+    // Rotation candidates and their weighted samplers, rebuilt only when the price catalog version changes
+    private static long candidatesVersion = -1;
+    private static List<Item> sellableCandidates = List.of();
+    private static List<Item> buyableCandidates = List.of();
+    private static AliasTable sellableSampler = null;
+    private static AliasTable buyableSampler = null;
+    
+    // Admin rerolls of the current day, mixed into the seed so /rpgadmin rotatemarket gives a new market
+    private static int rerolls = 0;
+    
     /**
      * Initialize the market manager
+     * Restores the saved market, so a restart keeps today's picks; only rolls if a day boundary
+     * passed while the server was down (or there is no saved market yet).
      */
     public static void init(MinecraftServer server) {
         VanillaPlusRpg.LOGGER.info("Initializing Market Manager");
-        rotateMarket(server);
+        DemandTracker.init(server);
+        refreshCandidates();
+        
+        rotationDay = Long.MIN_VALUE;
+        rerolls = 0;
+        hotItems = List.of();
+        cheapItems = List.of();
+        file = server.getWorldPath(LevelResource.ROOT).resolve(FILE_NAME);
+        if (Files.exists(file)) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+                read(in);
+            } catch (IOException e) {
+                VanillaPlusRpg.LOGGER.error("Failed to read {}, rolling a new market", FILE_NAME, e);
+            }
+        }
+        
+        if (rotationDay == currentDay(server)) {
+            scheduleNextRotation();
+            PriceQuote.rebuild();
+            VanillaPlusRpg.LOGGER.info("Restored market for day {} - Hot: {}, Cheap: {}", rotationDay, getHotItemName(), getCheapItemName());
+        } else {
+            rotateMarket(server);
+        }
     }
     
     /**
-     * Tick handler - checks if it's time to rotate the market
+     * Tick handler - rotates the market once the day time leaves the current day's window
+     * Between boundaries this is a single comparison. A /time set or sleep that skips several
+     * days rotates once; setting the time back to an earlier day rotates for that day.
      */
     public static void tick(MinecraftServer server) {
+        DemandTracker.tick();
         if (server.overworld() == null) return;
         
         long worldTime = server.overworld().getDayTime();
-        long dayTick = worldTime % ROTATION_INTERVAL;
-        
-        // Rotate at dawn (tick 0 of each day)
-        if (dayTick == 0 && lastRotationTime != worldTime / ROTATION_INTERVAL) {
-            lastRotationTime = worldTime / ROTATION_INTERVAL;
+        if (worldTime >= nextRotationTime || worldTime < rotationDayStart) {
             rotateMarket(server);
         }
     }
     
+    private static long currentDay(MinecraftServer server) {
+        if (server == null || server.overworld() == null) return 0;
+        return server.overworld().getDayTime() / ROTATION_INTERVAL;
+    }
+    
+    private static void scheduleNextRotation() {
+        rotationDayStart = rotationDay * ROTATION_INTERVAL;
+        nextRotationTime = rotationDayStart + ROTATION_INTERVAL;
+    }
+    
     /**
      * Rotate the market - pick new hot and cheap items
+     * The picks are seeded from the world seed, day number and reroll count, and the no-repeat
+     * set is recomputed the same way, so servers running the same world with the same shop and
+     * market config (and every restart) compute the same market for the same day.
      */
     public static void rotateMarket(MinecraftServer server) {
-        List<Item> sellableItems = new ArrayList<>();
-        List<Item> buyableItems = new ArrayList<>();
+        refreshCandidates();
+        RpgConfig config = RpgConfig.get();
         
-        // Get all sellable and buyable items (excluding black market)
-        for (var entry : ShopConfig.getAllEntries().entrySet()) {
-            Item item = entry.getKey();
-            var shopEntry = entry.getValue();
-            
-            if (!shopEntry.isBlackMarket()) {
-                if (shopEntry.isSellable()) {
-                    sellableItems.add(item);
-                }
-                if (shopEntry.isBuyable()) {
-                    buyableItems.add(item);
-                }
-            }
+        long day = currentDay(server);
+        long worldSeed = server != null && server.overworld() != null ? server.overworld().getSeed() : 0;
+        if (day == rotationDay) {
+            rerolls++;
+        } else {
+            rerolls = 0;
+            rotationDay = day;
         }
+        scheduleNextRotation();
+        Random random = new Random(seedFor(worldSeed, day, rerolls));
         
-        // Pick random hot item (high sell price)
-        if (!sellableItems.isEmpty()) {
-            Item newHot = sellableItems.get(RANDOM.nextInt(sellableItems.size()));
-            // Avoid same item as before if possible
-            if (sellableItems.size() > 1 && newHot == hotItem) {
-                sellableItems.remove(newHot);
-                newHot = sellableItems.get(RANDOM.nextInt(sellableItems.size()));
-            }
-            hotItem = newHot;
+        // Items the last few days' regular draws picked can't come back yet; recomputed from
+        // their seeds, so days this server was offline for count the same as any other
+        Set<Item> recent = new HashSet<>();
+        for (int back = 1; back <= config.marketNoRepeatDays; back++) {
+            Random past = new Random(seedFor(worldSeed, day - back, 0));
+            Set<Item> pastTaken = new HashSet<>();
+            pick(sellableCandidates, sellableSampler, config.marketHotSlots, past, Set.of(), pastTaken);
+            pick(buyableCandidates, buyableSampler, config.marketCheapSlots, past, Set.of(), pastTaken);
+            recent.addAll(pastTaken);
+        }
+        
+        // Hot items first, then cheap items excluding anything already hot
+        Set<Item> taken = new HashSet<>();
+        List<Item> newHot = pick(sellableCandidates, sellableSampler, config.marketHotSlots, random, recent, taken);
+        List<Item> newCheap = pick(buyableCandidates, buyableSampler, config.marketCheapSlots, random, recent, taken);
+        hotItems = newHot;
+        cheapItems = newCheap;
+        PriceQuote.rebuild();
+        save();
+        
+        // Broadcast market update
+        if (server != null && !hotItems.isEmpty()) {
+            broadcastMarketUpdate(server);
         }
         
-        // Pick random cheap item (low buy price)
-        if (!buyableItems.isEmpty()) {
-            Item newCheap = buyableItems.get(RANDOM.nextInt(buyableItems.size()));
-            // Avoid same as hot item and previous cheap item
-            if (buyableItems.size() > 1) {
-                while (newCheap == cheapItem || newCheap == hotItem) {
-                    buyableItems.remove(newCheap);
-                    if (buyableItems.isEmpty()) break;
-                    newCheap = buyableItems.get(RANDOM.nextInt(buyableItems.size()));
+        VanillaPlusRpg.LOGGER.info("Market rotated for day {} - Hot: {}, Cheap: {}", day, getHotItemName(), getCheapItemName());
+    }
+    
+    /**
+     * Fill up to the given number of slots from a weighted sampler
+     * Never picks an item twice or one in {@code taken}; items in {@code recent} are skipped
+     * unless there aren't enough other candidates left.
+     */
+    private static List<Item> pick(List<Item> candidates, AliasTable sampler, int slots, Random random,
+                                   Set<Item> recent, Set<Item> taken) {
+        List<Item> picks = new ArrayList<>();
+        if (sampler == null) return picks;
+        
+        for (int slot = 0; slot < slots; slot++) {
+            Item chosen = null;
+            Item fallback = null;
+            for (int draw = 0; draw < MAX_DRAWS_PER_SLOT; draw++) {
+                Item item = candidates.get(sampler.sample(random));
+                if (taken.contains(item)) continue;
+                if (!recent.contains(item)) {
+                    chosen = item;
+                    break;
                 }
+                if (fallback == null) fallback = item;
             }
-            cheapItem = newCheap;
+            if (chosen == null) chosen = fallback;
+            if (chosen == null) break; // Fewer candidates than slots
+            picks.add(chosen);
+            taken.add(chosen);
+        }
+        return List.copyOf(picks);
+    }
+    
+    // ========== PERSISTENCE ==========
+    
+    /**
+     * Save the market and demand state (world save, shutdown and after every rotation)
+     */
+    public static void save() {
+        DemandTracker.save();
+        if (file == null) return;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            write(new DataOutputStream(bytes));
+            AtomicFiles.writeInBackground(file, bytes.toByteArray());
+        } catch (IOException e) {
+            VanillaPlusRpg.LOGGER.error("Failed to encode market state", e);
         }
+    }
+    
+    private static void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeLong(rotationDay);
+        out.writeInt(rerolls);
+        writeItems(out, hotItems);
+        writeItems(out, cheapItems);
+        out.flush();
+    }
+    
+    private static void read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("not a market file");
+        long day = in.readLong();
+        int savedRerolls = in.readInt();
+        List<Item> hot = readItems(in);
+        List<Item> cheap = readItems(in);
+        // Only applied once the whole file has been read
+        rotationDay = day;
+        rerolls = savedRerolls;
+        hotItems = hot;
+        cheapItems = cheap;
+    }
+    
+    // Items are stored by id so the file survives mods being added or removed
+    private static void writeItems(DataOutputStream out, List<Item> items) throws IOException {
+        out.writeShort(items.size());
+        for (Item item : items) {
+            out.writeUTF(BuiltInRegistries.ITEM.getKey(item).toString());
+        }
+    }
+    
+    private static List<Item> readItems(DataInputStream in) throws IOException {
+        int count = in.readShort();
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Identifier id = Identifier.tryParse(in.readUTF());
+            if (id != null && BuiltInRegistries.ITEM.containsKey(id)) {
+                items.add(BuiltInRegistries.ITEM.getValue(id));
+            }
+        }
+        return List.copyOf(items);
+    }
+    
+    private static long seedFor(long worldSeed, long day, int reroll) {
+        long seed = worldSeed ^ (day * 0x9E3779B97F4A7C15L) ^ ((long) reroll << 32);
+        // Scramble (splitmix64 finalizer) so neighbouring days don't get related sequences
+        seed = (seed ^ (seed >>> 30)) * 0xBF58476D1CE4E5B9L;
+        seed = (seed ^ (seed >>> 27)) * 0x94D049BB133111EBL;
+        return seed ^ (seed >>> 31);
+    }
+    
+    /**
+     * Collect all sellable and buyable items (excluding black market) if the catalog changed
+     */
+    private static void refreshCandidates() {
+        PriceCatalog catalog = PriceCatalog.get();
+        if (catalog.getVersion() == candidatesVersion) return;
         
-        // Broadcast market update
-        if (server != null && hotItem != null) {
-            broadcastMarketUpdate(server);
+        Map<String, Double> weights = RpgConfig.get().marketWeights;
+        List<Item> sellable = new ArrayList<>();
+        List<Item> buyable = new ArrayList<>();
+        List<Double> sellableWeights = new ArrayList<>();
+        List<Double> buyableWeights = new ArrayList<>();
+        for (Item item : catalog.getItems()) {
+            if (catalog.isBlackMarket(item)) continue;
+            double weight = weightOf(item, weights);
+            if (weight <= 0) continue;
+            if (catalog.canSell(item)) {
+                sellable.add(item);
+                sellableWeights.add(weight);
+            }
+            if (catalog.canBuy(item)) {
+                buyable.add(item);
+                buyableWeights.add(weight);
+            }
         }
+        sellableCandidates = List.copyOf(sellable);
+        buyableCandidates = List.copyOf(buyable);
+        sellableSampler = sellable.isEmpty() ? null : new AliasTable(toArray(sellableWeights));
+        buyableSampler = buyable.isEmpty() ? null : new AliasTable(toArray(buyableWeights));
+        candidatesVersion = catalog.getVersion();
+    }
+    
+    /**
+     * Weight of an item from marketWeights: its own id wins, otherwise the first matching
+     * "#tag" entry, otherwise 1. A weight of 0 keeps the item out of the market.
+     */
+    private static double weightOf(Item item, Map<String, Double> weights) {
+        if (weights.isEmpty()) return 1.0;
+        Double own = weights.get(BuiltInRegistries.ITEM.getKey(item).toString());
+        if (own != null) return own;
         
-        VanillaPlusRpg.LOGGER.info("Market rotated - Hot: {}, Cheap: {}", 
-            hotItem != null ? hotItem.getName(hotItem.getDefaultInstance()).getString() : "none",
-            cheapItem != null ? cheapItem.getName(cheapItem.getDefaultInstance()).getString() : "none");
+        ItemStack stack = item.getDefaultInstance();
+        for (Map.Entry<String, Double> entry : weights.entrySet()) {
+            if (!entry.getKey().startsWith("#")) continue;
+            Identifier tag = Identifier.tryParse(entry.getKey().substring(1));
+            if (tag != null && stack.is(TagKey.create(Registries.ITEM, tag))) {
+                return entry.getValue();
+            }
+        }
+        return 1.0;
+    }
+    
+    private static double[] toArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
     }
     
     /**
      * Broadcast market update to all players
      */
     private static void broadcastMarketUpdate(MinecraftServer server) {
-        if (hotItem == null) return;
+        if (hotItems.isEmpty()) return;
         
-        String hotName = hotItem.getName(hotItem.getDefaultInstance()).getString();
-        String cheapName = cheapItem != null ? 
-            cheapItem.getName(cheapItem.getDefaultInstance()).getString() : "nothing special";
+        String cheapName = cheapItems.isEmpty() ? "nothing special" : getCheapItemName();
         
         // 1.21.11: Use Component API
-        Component message = Component.literal("§6[Market] §eDemand for §f" + hotName + 
+        Component message = Component.literal("§6[Market] §eDemand for §f" + getHotItemName() + 
             " §ehas skyrocketed! §7(2x sell price)");
         Component message2 = Component.literal("§6[Market] §a" + cheapName + 
-            " §ais on sale! §7(50% off buy price)");
+            " §a" + (cheapItems.size() > 1 ? "are" : "is") + " on sale! §7(50% off buy price)");
         
         for (ServerPlayer player : server.getPlayerList().getPlayers()) {
             player.sendSystemMessage(message);
@@ -136,72 +356,70 @@ public class MarketManager {
     }
     
     /**
-     * Get the current hot item
+     * Get the current hot items
      */
-    public static Item getHotItem() {
-        return hotItem;
+    public static List<Item> getHotItems() {
+        return hotItems;
     }
     
     /**
-     * Get the current cheap item
+     * Get the current cheap items
      */
-    public static Item getCheapItem() {
-        return cheapItem;
+    public static List<Item> getCheapItems() {
+        return cheapItems;
     }
     
     /**
-     * Check if an item is the current hot item
+     * Check if an item is one of the current hot items
      */
     public static boolean isHotItem(Item item) {
-        return hotItem != null && hotItem == item;
+        return hotItems.contains(item);
     }
     
     /**
-     * Check if an item is the current cheap item
+     * Check if an item is one of the current cheap items
      */
     public static boolean isCheapItem(Item item) {
-        return cheapItem != null && cheapItem == item;
+        return cheapItems.contains(item);
     }
     
     /**
-     * Get the effective sell price for an item (with hot item bonus)
+     * Get the effective sell price for an item (with demand and hot item bonus)
+     * Reads the precomputed PriceQuote table; use PriceQuote.get() directly for many lookups.
      */
     public static long getEffectiveSellPrice(Item item) {
-        long basePrice = ShopConfig.getSellPrice(item);
-        if (basePrice <= 0) return 0;
-        
-        if (isHotItem(item)) {
-            return (long) (basePrice * HOT_SELL_MULTIPLIER);
-        }
-        return basePrice;
+        return PriceQuote.get().getSellPrice(item);
     }
     
     /**
-     * Get the effective buy price for an item (with cheap item discount)
+     * Get the effective buy price for an item (with demand and cheap item discount)
+     * @return buy price or 0 if not buyable
      */
     public static long getEffectiveBuyPrice(Item item) {
-        long basePrice = ShopConfig.getBuyPrice(item);
-        if (basePrice <= 0) return -1;
-        
-        if (isCheapItem(item)) {
-            return (long) (basePrice * CHEAP_BUY_MULTIPLIER);
-        }
-        return basePrice;
+        return PriceQuote.get().getBuyPrice(item);
     }
     
     /**
-     * Get the name of the hot item (for HUD display)
+     * Get the names of the hot items (for HUD display)
      */
     public static String getHotItemName() {
-        if (hotItem == null) return "None";
-        return hotItem.getName(hotItem.getDefaultInstance()).getString();
+        return joinNames(hotItems);
     }
     
     /**
-     * Get the name of the cheap item (for HUD display)
+     * Get the names of the cheap items (for HUD display)
      */
     public static String getCheapItemName() {
-        if (cheapItem == null) return "None";
-        return cheapItem.getName(cheapItem.getDefaultInstance()).getString();
+        return joinNames(cheapItems);
+    }
+    
+    private static String joinNames(List<Item> items) {
+        if (items.isEmpty()) return "None";
+        StringBuilder names = new StringBuilder();
+        for (Item item : items) {
+            if (names.length() > 0) names.append(", ");
+            names.append(item.getName(item.getDefaultInstance()).getString());
+        }
+        return names.toString();
     }
 }
@@ -0,0 +1,130 @@
+package com.vanillaplus.rpg.economy;
+
+import net.minecraft.world.item.Item;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Open buy and sell orders for one item, in price-time priority
+ *
+ * Each side maps a price level to a FIFO queue of orders at that price: bids highest price first,
+ * asks lowest price first. The best order on a side is the head of the first level's queue, so
+ * the matching engine only ever looks at two queue heads.
+ */
+public class OrderBook {
+    /**
+     * A limit order; remaining shrinks as it fills
+     */
+    public static final class Order {
+        // Ids increase with placement time, so they double as the time priority
+        public final long id;
+        public final UUID owner;
+        public final Item item;
+        public final boolean buy;
+        public final long price;
+        int remaining;
+
+        Order(long id, UUID owner, Item item, boolean buy, long price, int remaining) {
+            this.id = id;
+            this.owner = owner;
+            this.item = item;
+            this.buy = buy;
+            this.price = price;
+            this.remaining = remaining;
+        }
+
+        public int getRemaining() {
+            return remaining;
+        }
+    }
+
+    private final Item item;
+    private final TreeMap<Long, ArrayDeque<Order>> bids = new TreeMap<>(Collections.reverseOrder());
+    private final TreeMap<Long, ArrayDeque<Order>> asks = new TreeMap<>();
+    // Whether the book is waiting in the matching queue
+    boolean queued = false;
+
+    OrderBook(Item item) {
+        this.item = item;
+    }
+
+    public Item getItem() {
+        return item;
+    }
+
+    void add(Order order) {
+        (order.buy ? bids : asks).computeIfAbsent(order.price, price -> new ArrayDeque<>()).addLast(order);
+    }
+
+    /**
+     * Take an order out of the book (cancelled or filled)
+     */
+    void remove(Order order) {
+        TreeMap<Long, ArrayDeque<Order>> side = order.buy ? bids : asks;
+        ArrayDeque<Order> level = side.get(order.price);
+        if (level == null) return;
+        level.remove(order);
+        if (level.isEmpty()) {
+            side.remove(order.price);
+        }
+    }
+
+    /**
+     * Highest bid, or null
+     */
+    Order bestBid() {
+        Map.Entry<Long, ArrayDeque<Order>> level = bids.firstEntry();
+        return level != null ? level.getValue().peekFirst() : null;
+    }
+
+    /**
+     * Lowest ask, or null
+     */
+    Order bestAsk() {
+        Map.Entry<Long, ArrayDeque<Order>> level = asks.firstEntry();
+        return level != null ? level.getValue().peekFirst() : null;
+    }
+
+    /**
+     * Whether the best bid meets the best ask, i.e. a trade is possible
+     */
+    boolean isCrossed() {
+        Order bid = bestBid();
+        Order ask = bestAsk();
+        return bid != null && ask != null && bid.price >= ask.price;
+    }
+
+    public boolean isEmpty() {
+        return bids.isEmpty() && asks.isEmpty();
+    }
+
+    /**
+     * Bid levels, best first (read-only)
+     */
+    public NavigableMap<Long, ArrayDeque<Order>> getBids() {
+        return Collections.unmodifiableNavigableMap(bids);
+    }
+
+    /**
+     * Ask levels, best first (read-only)
+     */
+    public NavigableMap<Long, ArrayDeque<Order>> getAsks() {
+        return Collections.unmodifiableNavigableMap(asks);
+    }
+
+    /**
+     * Total quantity waiting at a price level
+     */
+    public static int levelQuantity(ArrayDeque<Order> level) {
+        int quantity = 0;
+        for (Order order : level) {
+            quantity += order.remaining;
+        }
+        return quantity;
+    }
+}
@@ -0,0 +1,329 @@
+package com.vanillaplus.rpg.economy;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.world.item.Item;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of auction house events
+ *
+ * Every placement, fill, cancel and collection is appended as a small record; replaying the file
+ * rebuilds the open orders, the uncollected items and the refunds still owed. On startup the replayed state is written
+ * back as a fresh, compact log (open orders and stashes only), so the file never grows past one
+ * session's worth of events.
+ *
+ * Record: type(byte) length(ushort) payload crc32(int), the checksum covering type, length and
+ * payload. A torn, garbage or zero-filled tail (crash or power loss mid-write) fails the length
+ * or checksum and ends the replay there; the rewrite then drops it.
+ *
+ * Records are buffered and written at the end of each tick, and fsynced on the economy journal's
+ * writer right before the journal's group commit for that tick, so escrow and payout records in
+ * the journal never get ahead of the orders they belong to.
+ */
+class OrderLog {
+    private static final int MAGIC = 0x56504F32; // "VPO2"
+
+    private static final byte PLACE = 1;
+    private static final byte FILL = 2;
+    private static final byte CANCEL = 3;
+    private static final byte COLLECT = 4;
+    private static final byte STASH = 5;
+    private static final byte OWE = 6;
+    private static final byte PAID = 7;
+
+    /**
+     * Receives the records of a replayed log in order
+     */
+    interface Listener {
+        void place(long id, UUID owner, Item item, boolean buy, long price, int quantity);
+
+        void fill(long buyId, long sellId, int quantity, long price);
+
+        void cancel(long id);
+
+        void collect(UUID owner);
+
+        void stash(UUID owner, Item item, int count);
+
+        void owe(UUID owner, long amount);
+
+        void paid(UUID owner, long amount);
+    }
+
+    private final Path file;
+    private volatile FileChannel channel;
+    private DataOutputStream out;
+    // Records appended since the last flush
+    private boolean unflushed = false;
+
+    // Payload of the record being written (server thread only)
+    private final ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream(64);
+    private final DataOutputStream payload = new DataOutputStream(payloadBytes);
+
+    OrderLog(Path file) {
+        this.file = file;
+    }
+
+    // ========== REPLAY ==========
+
+    /**
+     * Feed every record to the listener
+     * @return records read
+     */
+    int replay(Listener listener) throws IOException {
+        if (!Files.exists(file)) return 0;
+        int records = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) throw new IOException("not an order log");
+            while (true) {
+                int type = in.read();
+                if (type < 0) break;
+                byte[] body = new byte[in.readUnsignedShort()];
+                in.readFully(body);
+                if (in.readInt() != checksum(type, body)) {
+                    VanillaPlusRpg.LOGGER.warn("Order log has a corrupt record after {} records, stopping replay there", records);
+                    break;
+                }
+                try {
+                    if (!apply(type, new DataInputStream(new ByteArrayInputStream(body)), listener)) {
+                        VanillaPlusRpg.LOGGER.warn("Order log has an unknown record type {} after {} records, stopping replay there", type, records);
+                        break;
+                    }
+                } catch (IOException e) {
+                    // Short payload or malformed item id (UTFDataFormatException)
+                    VanillaPlusRpg.LOGGER.warn("Order log has an unreadable record after {} records ({}), stopping replay there", records, e.toString());
+                    break;
+                }
+                records++;
+            }
+        } catch (EOFException e) {
+            VanillaPlusRpg.LOGGER.warn("Order log ends with an incomplete record, ignoring it");
+        }
+        return records;
+    }
+
+    /**
+     * Hand one record's payload to the listener
+     * @return false if the type is unknown
+     */
+    private static boolean apply(int type, DataInputStream in, Listener listener) throws IOException {
+        switch (type) {
+            case PLACE -> {
+                long id = in.readLong();
+                UUID owner = new UUID(in.readLong(), in.readLong());
+                Item item = readItem(in);
+                boolean buy = in.readBoolean();
+                long price = in.readLong();
+                int quantity = in.readInt();
+                if (item != null) listener.place(id, owner, item, buy, price, quantity);
+            }
+            case FILL -> listener.fill(in.readLong(), in.readLong(), in.readInt(), in.readLong());
+            case CANCEL -> listener.cancel(in.readLong());
+            case COLLECT -> listener.collect(new UUID(in.readLong(), in.readLong()));
+            case STASH -> {
+                UUID owner = new UUID(in.readLong(), in.readLong());
+                Item item = readItem(in);
+                int count = in.readInt();
+                if (item != null) listener.stash(owner, item, count);
+            }
+            case OWE -> listener.owe(new UUID(in.readLong(), in.readLong()), in.readLong());
+            case PAID -> listener.paid(new UUID(in.readLong(), in.readLong()), in.readLong());
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Item readItem(DataInputStream in) throws IOException {
+        Identifier id = Identifier.tryParse(in.readUTF());
+        // Items of removed mods can't be restored
+        return id != null && BuiltInRegistries.ITEM.containsKey(id) ? BuiltInRegistries.ITEM.getValue(id) : null;
+    }
+
+    // ========== WRITING ==========
+
+    /**
+     * Replace the log with the given state and open it for appending
+     */
+    void rewrite(Collection<OrderBook.Order> orders, Map<UUID, Map<Item, Integer>> stashes, Map<UUID, Long> owed) throws IOException {
+        close();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel tempChannel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream tempOut = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(tempChannel)))) {
+            tempOut.writeInt(MAGIC);
+            for (OrderBook.Order order : orders) {
+                writePlace(tempOut, order.id, order.owner, order.item, order.buy, order.price, order.getRemaining());
+            }
+            for (Map.Entry<UUID, Map<Item, Integer>> stash : stashes.entrySet()) {
+                for (Map.Entry<Item, Integer> entry : stash.getValue().entrySet()) {
+                    DataOutputStream body = beginRecord();
+                    writeUuid(body, stash.getKey());
+                    body.writeUTF(BuiltInRegistries.ITEM.getKey(entry.getKey()).toString());
+                    body.writeInt(entry.getValue());
+                    endRecord(tempOut, STASH);
+                }
+            }
+            for (Map.Entry<UUID, Long> entry : owed.entrySet()) {
+                writeMoney(tempOut, OWE, entry.getKey(), entry.getValue());
+            }
+            tempOut.flush();
+            tempChannel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)));
+    }
+
+    void appendPlace(OrderBook.Order order) throws IOException {
+        unflushed = true;
+        writePlace(out, order.id, order.owner, order.item, order.buy, order.price, order.getRemaining());
+    }
+
+    void appendFill(long buyId, long sellId, int quantity, long price) throws IOException {
+        unflushed = true;
+        DataOutputStream body = beginRecord();
+        body.writeLong(buyId);
+        body.writeLong(sellId);
+        body.writeInt(quantity);
+        body.writeLong(price);
+        endRecord(out, FILL);
+    }
+
+    void appendCancel(long id) throws IOException {
+        unflushed = true;
+        beginRecord().writeLong(id);
+        endRecord(out, CANCEL);
+    }
+
+    void appendCollect(UUID owner) throws IOException {
+        unflushed = true;
+        writeUuid(beginRecord(), owner);
+        endRecord(out, COLLECT);
+    }
+
+    void appendOwe(UUID owner, long amount) throws IOException {
+        unflushed = true;
+        writeMoney(out, OWE, owner, amount);
+    }
+
+    void appendPaid(UUID owner, long amount) throws IOException {
+        unflushed = true;
+        writeMoney(out, PAID, owner, amount);
+    }
+
+    private void writeMoney(DataOutputStream target, byte type, UUID owner, long amount) throws IOException {
+        DataOutputStream body = beginRecord();
+        writeUuid(body, owner);
+        body.writeLong(amount);
+        endRecord(target, type);
+    }
+
+    private void writePlace(DataOutputStream target, long id, UUID owner, Item item, boolean buy, long price, int quantity) throws IOException {
+        DataOutputStream body = beginRecord();
+        body.writeLong(id);
+        writeUuid(body, owner);
+        body.writeUTF(BuiltInRegistries.ITEM.getKey(item).toString());
+        body.writeBoolean(buy);
+        body.writeLong(price);
+        body.writeInt(quantity);
+        endRecord(target, PLACE);
+    }
+
+    private static void writeUuid(DataOutputStream out, UUID uuid) throws IOException {
+        out.writeLong(uuid.getMostSignificantBits());
+        out.writeLong(uuid.getLeastSignificantBits());
+    }
+
+    /**
+     * Start a record; write its fields to the returned stream, then call endRecord()
+     */
+    private DataOutputStream beginRecord() {
+        payloadBytes.reset();
+        return payload;
+    }
+
+    /**
+     * Frame the fields written since beginRecord() and write the record
+     */
+    private void endRecord(DataOutputStream target, byte type) throws IOException {
+        byte[] body = payloadBytes.toByteArray();
+        target.writeByte(type);
+        target.writeShort(body.length);
+        target.write(body);
+        target.writeInt(checksum(type, body));
+    }
+
+    private static int checksum(int type, byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(type);
+        crc.update(body.length >>> 8);
+        crc.update(body.length);
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Hand buffered records to the OS (end of tick)
+     * @return whether there was anything to write
+     */
+    boolean flush() throws IOException {
+        if (out == null || !unflushed) return false;
+        out.flush();
+        unflushed = false;
+        return true;
+    }
+
+    /**
+     * Fsync what has been flushed so far (safe to call from the journal writer thread)
+     */
+    void force() throws IOException {
+        FileChannel target = channel;
+        if (target == null) return;
+        try {
+            target.force(false);
+        } catch (ClosedChannelException e) {
+            // Closed on shutdown, which syncs first
+        }
+    }
+
+    /**
+     * Flush and fsync (world save)
+     */
+    void sync() throws IOException {
+        if (out == null) return;
+        out.flush();
+        unflushed = false;
+        channel.force(false);
+    }
+
+    void close() throws IOException {
+        if (out == null) return;
+        sync();
+        out.close();
+        out = null;
+        channel = null;
+    }
+}
@@ -0,0 +1,187 @@
+package com.vanillaplus.rpg.economy;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import com.vanillaplus.rpg.config.ShopConfig;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.world.item.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The one price table used by commands, GUIs and the market
+ *
+ * Built from the ItemPricing defaults with shop.json entries layered on top, once the item
+ * registry is complete. Prices are stored in primitive arrays indexed by the item's raw registry
+ * id, so a lookup is an array read. Instances are immutable.
+ *
+ * Buy price <= 0 means not buyable, sell price <= 0 means not sellable.
+ *
+ * Each build is a new snapshot with a higher version number, published by swapping one volatile
+ * reference. Readers that grab get() once see a consistent table even while a new one is being
+ * published, and caches can compare getVersion() to notice changes.
+ */
+public final class PriceCatalog {
+    private static volatile PriceCatalog current = new PriceCatalog(0, new long[0], new long[0], new int[0], new Item[0]);
+
+    private final long version;
+    private final long[] buyPrices;
+    private final long[] sellPrices;
+    private final int[] blackMarketCosts;
+    // Every item with a price, in raw id order (read-only view handed out by getItems)
+    private final List<Item> items;
+
+    private PriceCatalog(long version, long[] buyPrices, long[] sellPrices, int[] blackMarketCosts, Item[] items) {
+        this.version = version;
+        this.buyPrices = buyPrices;
+        this.sellPrices = sellPrices;
+        this.blackMarketCosts = blackMarketCosts;
+        this.items = Collections.unmodifiableList(Arrays.asList(items));
+    }
+
+    // ========== BUILDING ==========
+
+    /**
+     * Build the catalog from the current ItemPricing defaults and shop.json
+     * Call after all items are registered (server starting / client started).
+     */
+    public static synchronized void rebuild() {
+        PriceCatalog catalog = build(current.version + 1, ItemPricing.getAllPrices(), ShopConfig.getAllEntries());
+        current = catalog;
+        VanillaPlusRpg.LOGGER.info("Price catalog v{} built with {} items", catalog.version, catalog.size());
+    }
+
+    private static PriceCatalog build(long version, Map<Item, ItemPricing.PriceData> defaults, Map<Item, ShopConfig.ShopEntry> overrides) {
+        int size = BuiltInRegistries.ITEM.size();
+        long[] buy = new long[size];
+        long[] sell = new long[size];
+        int[] blackMarket = new int[size];
+        boolean[] priced = new boolean[size];
+
+        for (Map.Entry<Item, ItemPricing.PriceData> entry : defaults.entrySet()) {
+            int id = BuiltInRegistries.ITEM.getId(entry.getKey());
+            buy[id] = entry.getValue().buyPrice();
+            sell[id] = entry.getValue().sellPrice();
+            priced[id] = true;
+        }
+
+        // shop.json is the server owner's configuration, so it wins over the built-in defaults
+        for (Map.Entry<Item, ShopConfig.ShopEntry> entry : overrides.entrySet()) {
+            int id = BuiltInRegistries.ITEM.getId(entry.getKey());
+            ShopConfig.ShopEntry shopEntry = entry.getValue();
+            buy[id] = Math.max(0, shopEntry.buy);
+            sell[id] = Math.max(0, shopEntry.sell);
+            blackMarket[id] = shopEntry.blackMarketCost;
+            priced[id] = true;
+        }
+
+        List<Item> items = new ArrayList<>();
+        for (int id = 0; id < size; id++) {
+            if (priced[id]) {
+                items.add(BuiltInRegistries.ITEM.byId(id));
+            }
+        }
+        return new PriceCatalog(version, buy, sell, blackMarket, items.toArray(new Item[0]));
+    }
+
+    /**
+     * Get the active catalog
+     * Hold on to the returned snapshot for a whole operation instead of calling get() repeatedly.
+     */
+    public static PriceCatalog get() {
+        return current;
+    }
+
+    /**
+     * Snapshot version, increasing with every rebuild
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    // ========== LOOKUPS ==========
+
+    private static int idOf(Item item) {
+        return BuiltInRegistries.ITEM.getId(item);
+    }
+
+    /**
+     * Buy price for an item, or 0 if it can't be bought
+     */
+    public long getBuyPrice(Item item) {
+        int id = idOf(item);
+        return id >= 0 && id < buyPrices.length ? buyPrices[id] : 0;
+    }
+
+    /**
+     * Sell price for an item, or 0 if it can't be sold
+     */
+    public long getSellPrice(Item item) {
+        int id = idOf(item);
+        return id >= 0 && id < sellPrices.length ? sellPrices[id] : 0;
+    }
+
+    /**
+     * Black market cost (in levels) for an item, or 0 if it isn't a black market item
+     */
+    public int getBlackMarketCost(Item item) {
+        int id = idOf(item);
+        return id >= 0 && id < blackMarketCosts.length ? blackMarketCosts[id] : 0;
+    }
+
+    public boolean canBuy(Item item) {
+        return getBuyPrice(item) > 0;
+    }
+
+    public boolean canSell(Item item) {
+        return getSellPrice(item) > 0;
+    }
+
+    public boolean isBlackMarket(Item item) {
+        return getBlackMarketCost(item) > 0;
+    }
+
+    /**
+     * All items that have a price (read-only, no copy)
+     */
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    // ========== DIFF ==========
+
+    /**
+     * Describe every price that differs from an older catalog, one line per item
+     */
+    public List<String> diff(PriceCatalog before) {
+        List<String> changes = new ArrayList<>();
+        int size = Math.max(buyPrices.length, before.buyPrices.length);
+        for (int id = 0; id < size; id++) {
+            long oldBuy = valueAt(before.buyPrices, id);
+            long newBuy = valueAt(buyPrices, id);
+            long oldSell = valueAt(before.sellPrices, id);
+            long newSell = valueAt(sellPrices, id);
+            long oldBlackMarket = id < before.blackMarketCosts.length ? before.blackMarketCosts[id] : 0;
+            long newBlackMarket = id < blackMarketCosts.length ? blackMarketCosts[id] : 0;
+            if (oldBuy == newBuy && oldSell == newSell && oldBlackMarket == newBlackMarket) continue;
+
+            StringBuilder line = new StringBuilder(BuiltInRegistries.ITEM.getKey(BuiltInRegistries.ITEM.byId(id)).toString());
+            if (oldBuy != newBuy) line.append(" buy ").append(oldBuy).append(" -> ").append(newBuy);
+            if (oldSell != newSell) line.append(" sell ").append(oldSell).append(" -> ").append(newSell);
+            if (oldBlackMarket != newBlackMarket) line.append(" levels ").append(oldBlackMarket).append(" -> ").append(newBlackMarket);
+            changes.add(line.toString());
+        }
+        return changes;
+    }
+
+    private static long valueAt(long[] values, int id) {
+        return id < values.length ? values[id] : 0;
+    }
+}
@@ -0,0 +1,156 @@
+package com.vanillaplus.rpg.economy;
+
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.world.item.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Effective buy and sell prices for every item, ready to read
+ *
+ * The catalog price with the supply/demand multiplier and the hot/cheap bonus already applied,
+ * stored in arrays indexed by raw item id. A table is built only when something that feeds into
+ * it changes - market rotation, a price reload or a finished demand recompute pass - and is
+ * published by swapping one volatile reference, so a lookup is a single array read.
+ *
+ * Clients get a copy of the table whenever it changes, so the shop screens show the prices
+ * actually charged.
+ */
+public final class PriceQuote {
+    private static final AtomicLong nextSequence = new AtomicLong();
+
+    private static volatile PriceQuote current = new PriceQuote(0, 0, new long[0], new long[0]);
+
+    private final long sequence;
+    private final long catalogVersion;
+    private final long[] buyPrices;
+    private final long[] sellPrices;
+
+    private PriceQuote(long sequence, long catalogVersion, long[] buyPrices, long[] sellPrices) {
+        this.sequence = sequence;
+        this.catalogVersion = catalogVersion;
+        this.buyPrices = buyPrices;
+        this.sellPrices = sellPrices;
+    }
+
+    /**
+     * Recompute every effective price from the catalog and the market state
+     */
+    public static synchronized void rebuild() {
+        PriceCatalog catalog = PriceCatalog.get();
+        int size = BuiltInRegistries.ITEM.size();
+        long[] buy = new long[size];
+        long[] sell = new long[size];
+
+        for (Item item : catalog.getItems()) {
+            int id = BuiltInRegistries.ITEM.getId(item);
+            double demand = DemandTracker.getMultiplier(item);
+
+            long baseBuy = catalog.getBuyPrice(item);
+            if (baseBuy > 0) {
+                double multiplier = MarketManager.isCheapItem(item) ? demand * MarketManager.CHEAP_BUY_MULTIPLIER : demand;
+                buy[id] = Math.max(1, (long) (baseBuy * multiplier));
+            }
+
+            long baseSell = catalog.getSellPrice(item);
+            if (baseSell > 0) {
+                double multiplier = MarketManager.isHotItem(item) ? demand * MarketManager.HOT_SELL_MULTIPLIER : demand;
+                sell[id] = Math.max(1, (long) (baseSell * multiplier));
+            }
+        }
+        current = new PriceQuote(nextSequence.incrementAndGet(), catalog.getVersion(), buy, sell);
+    }
+
+    /**
+     * Get the active table
+     */
+    public static PriceQuote get() {
+        return current;
+    }
+
+    /**
+     * Increases with every rebuild, so a changed table is easy to spot
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Version of the PriceCatalog this table was built from
+     */
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
+    /**
+     * Effective buy price, or 0 if the item can't be bought
+     */
+    public long getBuyPrice(Item item) {
+        int id = BuiltInRegistries.ITEM.getId(item);
+        return id >= 0 && id < buyPrices.length ? buyPrices[id] : 0;
+    }
+
+    /**
+     * Effective sell price, or 0 if the item can't be sold
+     */
+    public long getSellPrice(Item item) {
+        int id = BuiltInRegistries.ITEM.getId(item);
+        return id >= 0 && id < sellPrices.length ? sellPrices[id] : 0;
+    }
+
+    /**
+     * Every item with a buy price, in raw id order
+     */
+    public List<Item> getBuyableItems() {
+        List<Item> items = new ArrayList<>();
+        for (int id = 0; id < buyPrices.length; id++) {
+            if (buyPrices[id] > 0) {
+                items.add(BuiltInRegistries.ITEM.byId(id));
+            }
+        }
+        return items;
+    }
+
+    // ========== SYNC ==========
+
+    /**
+     * Write the priced items only: raw id, buy and sell as varints
+     */
+    public void write(FriendlyByteBuf buf) {
+        int count = 0;
+        for (int id = 0; id < buyPrices.length; id++) {
+            if (buyPrices[id] > 0 || sellPrices[id] > 0) count++;
+        }
+        buf.writeVarInt(buyPrices.length);
+        buf.writeVarInt(count);
+        for (int id = 0; id < buyPrices.length; id++) {
+            if (buyPrices[id] <= 0 && sellPrices[id] <= 0) continue;
+            buf.writeVarInt(id);
+            buf.writeVarLong(buyPrices[id]);
+            buf.writeVarLong(sellPrices[id]);
+        }
+    }
+
+    /**
+     * Read a table sent by the server (raw item ids match, the registries are synced)
+     */
+    public static PriceQuote read(FriendlyByteBuf buf) {
+        int size = Math.min(buf.readVarInt(), BuiltInRegistries.ITEM.size());
+        long[] buy = new long[size];
+        long[] sell = new long[size];
+        int count = buf.readVarInt();
+        for (int i = 0; i < count; i++) {
+            int id = buf.readVarInt();
+            long buyPrice = buf.readVarLong();
+            long sellPrice = buf.readVarLong();
+            if (id >= 0 && id < size) {
+                buy[id] = buyPrice;
+                sell[id] = sellPrice;
+            }
+        }
+        return new PriceQuote(0, 0, buy, sell);
+    }
+}
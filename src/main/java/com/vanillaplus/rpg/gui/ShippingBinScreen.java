@@ -1,6 +1,7 @@
 package com.vanillaplus.rpg.gui;
 
-import com.vanillaplus.rpg.economy.ItemPricing;
+import com.vanillaplus.rpg.client.ClientPriceCache;
+import com.vanillaplus.rpg.economy.PriceCatalog;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
@@ -121,10 +122,10 @@ public class ShippingBinScreen extends BaseRpgScreen {
         // Draw "Sell Item in Hand" button
         boolean sellHandHovered = isMouseOver(mouseX, mouseY, sellHandBtnX, sellHandBtnY, 120, 20);
         if (!heldItem.isEmpty()) {
-            ItemPricing.PriceData priceData = ItemPricing.getPrice(heldItem.getItem());
-            if (priceData != null) {
-                long value = priceData.sellPrice() * (isShiftDown() ? heldItem.getCount() : 1);
-                String label = isShiftDown() ? "Sell All ($" + formatMoney(value) + ")" : "Sell 1 ($" + priceData.sellPrice() + ")";
+            long sellPrice = ClientPriceCache.getSellPrice(heldItem.getItem());
+            if (sellPrice > 0) {
+                long value = sellPrice * (isShiftDown() ? heldItem.getCount() : 1);
+                String label = isShiftDown() ? "Sell All ($" + formatMoney(value) + ")" : "Sell 1 ($" + sellPrice + ")";
                 graphics.fill(sellHandBtnX, sellHandBtnY, sellHandBtnX + 120, sellHandBtnY + 20, 
                     sellHandHovered ? 0xCC228822 : 0xCC115511);
                 drawBorder(graphics, sellHandBtnX, sellHandBtnY, 120, 20, 0xFF44AA44);
@@ -166,10 +167,7 @@ public class ShippingBinScreen extends BaseRpgScreen {
                 }
                 
                 // Calculate total sellable value
-                ItemPricing.PriceData priceData = ItemPricing.getPrice(stack.getItem());
-                if (priceData != null) {
-                    totalSellableValue += priceData.sellPrice() * stack.getCount();
-                }
+                totalSellableValue += ClientPriceCache.getSellPrice(stack.getItem()) * stack.getCount();
             }
             
             if (isHovered) {
@@ -220,14 +218,14 @@ public class ShippingBinScreen extends BaseRpgScreen {
     private void drawSlotTooltip(GuiGraphics graphics, int mouseX, int mouseY, ItemStack stack) {
         Item item = stack.getItem();
         String itemName = item.getName(item.getDefaultInstance()).getString();
-        ItemPricing.PriceData priceData = ItemPricing.getPrice(item);
+        long sellPrice = ClientPriceCache.getSellPrice(item);
         
         List<String> lines = new ArrayList<>();
         lines.add("§f" + itemName);
-        if (priceData != null) {
-            lines.add("§6Sell Price: §e$" + priceData.sellPrice() + " each");
+        if (sellPrice > 0) {
+            lines.add("§6Sell Price: §e$" + sellPrice + " each");
             if (stack.getCount() > 1) {
-                long totalValue = priceData.sellPrice() * stack.getCount();
+                long totalValue = sellPrice * stack.getCount();
                 lines.add("§6Stack Value: §e$" + formatMoney(totalValue));
             }
         } else {
@@ -288,8 +286,7 @@ public class ShippingBinScreen extends BaseRpgScreen {
         ItemStack stack = mc.player.getInventory().getItem(slot);
         if (stack.isEmpty()) return;
         
-        ItemPricing.PriceData priceData = ItemPricing.getPrice(stack.getItem());
-        if (priceData == null) return; // Can't sell this item
+        if (!PriceCatalog.get().canSell(stack.getItem())) return; // Can't sell this item
         
         String itemId = BuiltInRegistries.ITEM.getKey(stack.getItem()).getPath();
         int amount = sellStack ? stack.getCount() : 1;
@@ -1,7 +1,7 @@
 package com.vanillaplus.rpg.gui;
 
+import com.vanillaplus.rpg.client.ClientPriceCache;
 import com.vanillaplus.rpg.client.HudRenderer;
-import com.vanillaplus.rpg.economy.ItemPricing;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.gui.GuiGraphics;
 import net.minecraft.client.gui.components.Button;
@@ -168,7 +168,6 @@ public class ShopScreen extends BaseRpgScreen {
     
     private void loadShopItems() {
         shopItems = new ArrayList<>();
-        Map<Item, ItemPricing.PriceData> prices = ItemPricing.getAllPrices();
         
         if (isBlackMarket) {
             // Black market sells special/rare items for XP levels
@@ -181,8 +180,8 @@ public class ShopScreen extends BaseRpgScreen {
             shopItems.add(Items.NETHER_STAR);
             shopItems.add(Items.DRAGON_EGG);
         } else {
-            // Regular shop items
-            shopItems.addAll(prices.keySet());
+            // Regular shop items - what the server sells, from its synced prices
+            shopItems.addAll(ClientPriceCache.getBuyableItems());
         }
     }
     
@@ -619,7 +618,8 @@ public class ShopScreen extends BaseRpgScreen {
     private void drawItemTooltip(GuiGraphics graphics, int mouseX, int mouseY) {
         if (hoveredItem == null) return;
         
-        ItemPricing.PriceData priceData = ItemPricing.getPrice(hoveredItem);
+        long buyPrice = ClientPriceCache.getBuyPrice(hoveredItem);
+        long sellPrice = ClientPriceCache.getSellPrice(hoveredItem);
         String itemName = hoveredItem.getName(hoveredItem.getDefaultInstance()).getString();
         
         List<String> lines = new ArrayList<>();
@@ -628,9 +628,9 @@ public class ShopScreen extends BaseRpgScreen {
         if (isBlackMarket) {
             int levelCost = getBlackMarketCost(hoveredItem);
             lines.add("§5Cost: §d" + levelCost + " XP Levels");
-        } else if (priceData != null) {
-            lines.add("§aLeft-Click Buy: §6$" + formatMoney(priceData.buyPrice()));
-            lines.add("§cRight-Click Sell: §6$" + formatMoney(priceData.sellPrice()));
+        } else if (buyPrice > 0 || sellPrice > 0) {
+            lines.add("§aLeft-Click Buy: §6$" + formatMoney(buyPrice));
+            lines.add("§cRight-Click Sell: §6$" + formatMoney(sellPrice));
             if (isShiftDown()) {
                 lines.add("§7(Shift: Buy/Sell x64)");
             }
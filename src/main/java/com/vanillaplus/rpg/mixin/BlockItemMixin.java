@@ -0,0 +1,31 @@
+package com.vanillaplus.rpg.mixin;
+
+import com.vanillaplus.rpg.xp.PlacedBlockTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.InteractionResult;
+import net.minecraft.world.item.BlockItem;
+import net.minecraft.world.item.context.BlockPlaceContext;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin to mark blocks placed by players, so breaking them again gives no reward
+ */
+@Mixin(BlockItem.class)
+public abstract class BlockItemMixin {
+    
+    /**
+     * Called after a block item was used to place a block
+     */
+    @Inject(method = "place", at = @At("RETURN"))
+    private void vanillaplusrpg$onPlace(BlockPlaceContext context, CallbackInfoReturnable<InteractionResult> cir) {
+        if (context.getPlayer() == null || !cir.getReturnValue().consumesAction()) return;
+        if (!(context.getLevel() instanceof ServerLevel level)) return;
+        
+        BlockPos pos = context.getClickedPos();
+        PlacedBlockTracker.onPlaced(level, pos, level.getBlockState(pos));
+    }
+}
@@ -0,0 +1,28 @@
+package com.vanillaplus.rpg.mixin;
+
+import com.vanillaplus.rpg.xp.PlacedBlockTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.LevelChunk;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+/**
+ * Mixin to keep placed-block bits in step with every block change in a chunk
+ */
+@Mixin(LevelChunk.class)
+public abstract class LevelChunkMixin {
+    
+    /**
+     * Called after a block state was set (returns the old state, or null if nothing changed)
+     */
+    @Inject(method = "setBlockState", at = @At("RETURN"))
+    private void vanillaplusrpg$onSetBlockState(BlockPos pos, BlockState state, int flags, CallbackInfoReturnable<BlockState> cir) {
+        BlockState oldState = cir.getReturnValue();
+        if (oldState == null) return;
+        
+        PlacedBlockTracker.onBlockChanged((LevelChunk) (Object) this, pos, oldState, state);
+    }
+}
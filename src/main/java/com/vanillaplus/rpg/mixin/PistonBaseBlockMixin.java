@@ -0,0 +1,52 @@
+package com.vanillaplus.rpg.mixin;
+
+import com.llamalad7.mixinextras.injector.ModifyExpressionValue;
+import com.llamalad7.mixinextras.sugar.Local;
+import com.llamalad7.mixinextras.sugar.Share;
+import com.llamalad7.mixinextras.sugar.ref.LocalRef;
+import com.vanillaplus.rpg.xp.PlacedBlockTracker;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.block.piston.PistonBaseBlock;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import java.util.List;
+
+/**
+ * Mixin to carry placed-block bits along with blocks a piston pushes or pulls
+ */
+@Mixin(PistonBaseBlock.class)
+public abstract class PistonBaseBlockMixin {
+    
+    /**
+     * Called once the blocks to move are known, before any of them move
+     */
+    @ModifyExpressionValue(method = "moveBlocks", at = @At(value = "INVOKE",
+        target = "Lnet/minecraft/world/level/block/piston/PistonStructureResolver;getToPush()Ljava/util/List;"))
+    private List<BlockPos> vanillaplusrpg$findPlaced(List<BlockPos> toPush, @Local(argsOnly = true) Level level,
+                                                     @Share("placedMoves") LocalRef<List<BlockPos>> placedMoves) {
+        if (level instanceof ServerLevel serverLevel) {
+            placedMoves.set(PlacedBlockTracker.findPlaced(serverLevel, toPush));
+        }
+        return toPush;
+    }
+    
+    /**
+     * Called after the blocks moved; sets the bits at their new positions
+     */
+    @Inject(method = "moveBlocks", at = @At("RETURN"))
+    private void vanillaplusrpg$onMoved(Level level, BlockPos pos, Direction direction, boolean extending,
+                                        CallbackInfoReturnable<Boolean> cir,
+                                        @Share("placedMoves") LocalRef<List<BlockPos>> placedMoves) {
+        List<BlockPos> moved = placedMoves.get();
+        if (moved == null || moved.isEmpty() || !cir.getReturnValue()) return;
+        if (!(level instanceof ServerLevel serverLevel)) return;
+        
+        PlacedBlockTracker.onPistonMoved(serverLevel, moved, extending ? direction : direction.getOpposite());
+    }
+}
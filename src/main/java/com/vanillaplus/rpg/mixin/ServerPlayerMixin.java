@@ -0,0 +1,28 @@
+package com.vanillaplus.rpg.mixin;
+
+import com.vanillaplus.rpg.data.PlayerProfile;
+import com.vanillaplus.rpg.data.PlayerProfileHolder;
+import net.minecraft.server.level.ServerPlayer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
+
+/**
+ * Mixin to attach the loaded RPG profile to the player
+ * Not saved with the entity - PlayerDataManager owns persistence and re-attaches after respawn
+ */
+@Mixin(ServerPlayer.class)
+public abstract class ServerPlayerMixin implements PlayerProfileHolder {
+
+    @Unique
+    private PlayerProfile vanillaplusrpg$profile;
+
+    @Override
+    public PlayerProfile vanillaplusrpg$getProfile() {
+        return vanillaplusrpg$profile;
+    }
+
+    @Override
+    public void vanillaplusrpg$setProfile(PlayerProfile profile) {
+        this.vanillaplusrpg$profile = profile;
+    }
+}
@@ -0,0 +1,107 @@
+package com.vanillaplus.rpg.network;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import com.vanillaplus.rpg.economy.AuctionHouse;
+import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayNetworking;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.chat.Component;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.level.ServerPlayer;
+
+/**
+ * Auction house packets - clients place and cancel orders without going through chat commands
+ * All handling happens on the server thread, exactly like the /ah commands.
+ */
+public class AuctionNetworking {
+
+    public static final Identifier PLACE_ORDER_ID = Identifier.fromNamespaceAndPath(VanillaPlusRpg.MOD_ID, "place_order");
+    public static final Identifier CANCEL_ORDER_ID = Identifier.fromNamespaceAndPath(VanillaPlusRpg.MOD_ID, "cancel_order");
+
+    /**
+     * Place order payload - client to server
+     */
+    public record PlaceOrderPayload(String itemId, boolean buy, long price, int quantity)
+            implements CustomPacketPayload {
+
+        public static final CustomPacketPayload.Type<PlaceOrderPayload> TYPE =
+            new CustomPacketPayload.Type<>(PLACE_ORDER_ID);
+
+        public static final StreamCodec<FriendlyByteBuf, PlaceOrderPayload> STREAM_CODEC =
+            StreamCodec.of(PlaceOrderPayload::write, PlaceOrderPayload::read);
+
+        public static PlaceOrderPayload read(FriendlyByteBuf buf) {
+            String itemId = buf.readUtf(256);
+            boolean buy = buf.readBoolean();
+            long price = buf.readLong();
+            int quantity = buf.readInt();
+            return new PlaceOrderPayload(itemId, buy, price, quantity);
+        }
+
+        public static void write(FriendlyByteBuf buf, PlaceOrderPayload payload) {
+            buf.writeUtf(payload.itemId, 256);
+            buf.writeBoolean(payload.buy);
+            buf.writeLong(payload.price);
+            buf.writeInt(payload.quantity);
+        }
+
+        @Override
+        public Type<? extends CustomPacketPayload> type() {
+            return TYPE;
+        }
+    }
+
+    /**
+     * Cancel order payload - client to server
+     */
+    public record CancelOrderPayload(long orderId) implements CustomPacketPayload {
+
+        public static final CustomPacketPayload.Type<CancelOrderPayload> TYPE =
+            new CustomPacketPayload.Type<>(CANCEL_ORDER_ID);
+
+        public static final StreamCodec<FriendlyByteBuf, CancelOrderPayload> STREAM_CODEC =
+            StreamCodec.of(CancelOrderPayload::write, CancelOrderPayload::read);
+
+        public static CancelOrderPayload read(FriendlyByteBuf buf) {
+            return new CancelOrderPayload(buf.readLong());
+        }
+
+        public static void write(FriendlyByteBuf buf, CancelOrderPayload payload) {
+            buf.writeLong(payload.orderId);
+        }
+
+        @Override
+        public Type<? extends CustomPacketPayload> type() {
+            return TYPE;
+        }
+    }
+
+    /**
+     * Register payload types and server handlers (call from common init)
+     */
+    public static void registerServer() {
+        PayloadTypeRegistry.playC2S().register(PlaceOrderPayload.TYPE, PlaceOrderPayload.STREAM_CODEC);
+        PayloadTypeRegistry.playC2S().register(CancelOrderPayload.TYPE, CancelOrderPayload.STREAM_CODEC);
+
+        ServerPlayNetworking.registerGlobalReceiver(PlaceOrderPayload.TYPE, (payload, context) -> {
+            ServerPlayer player = context.player();
+            context.server().execute(() -> {
+                Identifier id = Identifier.tryParse(payload.itemId());
+                if (id == null || !BuiltInRegistries.ITEM.containsKey(id)) {
+                    player.sendSystemMessage(Component.literal("§cUnknown item: " + payload.itemId()));
+                    return;
+                }
+                AuctionHouse.placeOrder(player, BuiltInRegistries.ITEM.getValue(id),
+                    payload.buy(), payload.price(), payload.quantity());
+            });
+        });
+
+        ServerPlayNetworking.registerGlobalReceiver(CancelOrderPayload.TYPE, (payload, context) -> {
+            ServerPlayer player = context.player();
+            context.server().execute(() -> AuctionHouse.cancelOrder(player, payload.orderId()));
+        });
+    }
+}
@@ -1,11 +1,14 @@
 package com.vanillaplus.rpg.network;
 
 import com.vanillaplus.rpg.VanillaPlusRpg;
+import com.vanillaplus.rpg.client.ClientPriceCache;
 import com.vanillaplus.rpg.client.ClientSkillCache;
 import com.vanillaplus.rpg.client.HudRenderer;
 import com.vanillaplus.rpg.client.RewardOverlay;
 import com.vanillaplus.rpg.data.PlayerDataManager;
+import com.vanillaplus.rpg.data.PlayerProfile;
 import com.vanillaplus.rpg.economy.MarketManager;
+import com.vanillaplus.rpg.economy.PriceQuote;
 import net.fabricmc.api.EnvType;
 import net.fabricmc.api.Environment;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
@@ -34,10 +37,13 @@ public class PlayerDataSyncHandler {
     public static final Identifier REWARD_NOTIFICATION_ID = Identifier.fromNamespaceAndPath(VanillaPlusRpg.MOD_ID, "reward_notification");
     public static final Identifier SKILL_DATA_SYNC_ID = Identifier.fromNamespaceAndPath(VanillaPlusRpg.MOD_ID, "skill_data_sync");
     public static final Identifier SKILL_UPGRADE_ID = Identifier.fromNamespaceAndPath(VanillaPlusRpg.MOD_ID, "skill_upgrade");
+    public static final Identifier PRICE_SYNC_ID = Identifier.fromNamespaceAndPath(VanillaPlusRpg.MOD_ID, "price_sync");
     
     // Sync interval (every 20 ticks = 1 second)
     private static final int SYNC_INTERVAL = 20;
     private static int tickCounter = 0;
+    // Sequence of the last price table sent to everyone
+    private static long lastPriceSequence = -1;
     
     /**
      * Player data sync payload
@@ -148,6 +154,31 @@ public class PlayerDataSyncHandler {
         }
     }
     
+    /**
+     * Price sync payload - the effective buy/sell prices, sent on join and whenever they change
+     */
+    public record PriceSyncPayload(PriceQuote quote) implements CustomPacketPayload {
+        
+        public static final CustomPacketPayload.Type<PriceSyncPayload> TYPE = 
+            new CustomPacketPayload.Type<>(PRICE_SYNC_ID);
+        
+        public static final StreamCodec<FriendlyByteBuf, PriceSyncPayload> STREAM_CODEC = 
+            StreamCodec.of(PriceSyncPayload::write, PriceSyncPayload::read);
+        
+        public static PriceSyncPayload read(FriendlyByteBuf buf) {
+            return new PriceSyncPayload(PriceQuote.read(buf));
+        }
+        
+        public static void write(FriendlyByteBuf buf, PriceSyncPayload payload) {
+            payload.quote.write(buf);
+        }
+        
+        @Override
+        public Type<? extends CustomPacketPayload> type() {
+            return TYPE;
+        }
+    }
+    
     /**
      * Skill upgrade request payload - sent from client to server
      * skillIndex: 0=Farming, 1=Combat, 2=Defense, 3=Smithing, 4=Woodcutting, 5=Mining
@@ -182,6 +213,7 @@ public class PlayerDataSyncHandler {
         PayloadTypeRegistry.playS2C().register(PlayerDataSyncPayload.TYPE, PlayerDataSyncPayload.STREAM_CODEC);
         PayloadTypeRegistry.playS2C().register(RewardNotificationPayload.TYPE, RewardNotificationPayload.STREAM_CODEC);
         PayloadTypeRegistry.playS2C().register(SkillDataSyncPayload.TYPE, SkillDataSyncPayload.STREAM_CODEC);
+        PayloadTypeRegistry.playS2C().register(PriceSyncPayload.TYPE, PriceSyncPayload.STREAM_CODEC);
         
         // Register payload types (C2S = Client to Server)
         PayloadTypeRegistry.playC2S().register(SkillUpgradePayload.TYPE, SkillUpgradePayload.STREAM_CODEC);
@@ -219,6 +251,15 @@ public class PlayerDataSyncHandler {
                 for (ServerPlayer player : server.getPlayerList().getPlayers()) {
                     syncToPlayer(player);
                 }
+                
+                // Prices only when the table was rebuilt since the last send
+                PriceQuote quote = PriceQuote.get();
+                if (quote.getSequence() != lastPriceSequence) {
+                    lastPriceSequence = quote.getSequence();
+                    for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+                        syncPricesToPlayer(player, quote);
+                    }
+                }
             }
         });
         
@@ -272,6 +313,11 @@ public class PlayerDataSyncHandler {
             });
         });
         
+        // Register receiver for price sync
+        ClientPlayNetworking.registerGlobalReceiver(PriceSyncPayload.TYPE, (payload, context) -> {
+            context.client().execute(() -> ClientPriceCache.update(payload.quote()));
+        });
+        
         LOGGER.info("Client-side network handlers registered");
     }
     
@@ -299,12 +345,13 @@ public class PlayerDataSyncHandler {
      */
     public static void syncToPlayer(ServerPlayer player) {
         try {
-            long money = PlayerDataManager.getMoney(player);
-            int level = PlayerDataManager.getRpgLevel(player);
-            int xp = PlayerDataManager.getRpgXp(player);
+            PlayerProfile profile = PlayerDataManager.getProfile(player);
+            long money = profile.getMoney();
+            int level = profile.getRpgLevel();
+            int xp = profile.getRpgXp();
             int xpRequired = PlayerDataManager.getXpRequired(level);
             String hotItem = MarketManager.getHotItemName();
-            int skillPoints = PlayerDataManager.getSkillPoints(player);
+            int skillPoints = profile.getSkillPoints();
             
             // Send main data payload
             PlayerDataSyncPayload payload = new PlayerDataSyncPayload(money, level, xp, xpRequired, hotItem, skillPoints);
@@ -312,12 +359,12 @@ public class PlayerDataSyncHandler {
             
             // Send skill data payload
             SkillDataSyncPayload skillPayload = new SkillDataSyncPayload(
-                PlayerDataManager.getSkillLevel(player, PlayerDataManager.Skill.FARMING),
-                PlayerDataManager.getSkillLevel(player, PlayerDataManager.Skill.COMBAT),
-                PlayerDataManager.getSkillLevel(player, PlayerDataManager.Skill.DEFENSE),
-                PlayerDataManager.getSkillLevel(player, PlayerDataManager.Skill.SMITHING),
-                PlayerDataManager.getSkillLevel(player, PlayerDataManager.Skill.WOODCUTTING),
-                PlayerDataManager.getSkillLevel(player, PlayerDataManager.Skill.MINING)
+                profile.getSkillLevel(PlayerDataManager.Skill.FARMING),
+                profile.getSkillLevel(PlayerDataManager.Skill.COMBAT),
+                profile.getSkillLevel(PlayerDataManager.Skill.DEFENSE),
+                profile.getSkillLevel(PlayerDataManager.Skill.SMITHING),
+                profile.getSkillLevel(PlayerDataManager.Skill.WOODCUTTING),
+                profile.getSkillLevel(PlayerDataManager.Skill.MINING)
             );
             ServerPlayNetworking.send(player, skillPayload);
         } catch (Exception e) {
@@ -325,6 +372,21 @@ public class PlayerDataSyncHandler {
         }
     }
     
+    /**
+     * Send the current effective prices to a player (on join)
+     */
+    public static void syncPricesToPlayer(ServerPlayer player) {
+        syncPricesToPlayer(player, PriceQuote.get());
+    }
+    
+    private static void syncPricesToPlayer(ServerPlayer player, PriceQuote quote) {
+        try {
+            ServerPlayNetworking.send(player, new PriceSyncPayload(quote));
+        } catch (Exception e) {
+            // Silently ignore if player disconnected
+        }
+    }
+    
     /**
      * Send a general reward notification to the player
      */
@@ -0,0 +1,127 @@
+package com.vanillaplus.rpg.xp;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import com.vanillaplus.rpg.data.PlayerDataManager;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.CropBlock;
+import net.minecraft.world.level.block.state.BlockState;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Block break rewards for every block state, ready to read
+ *
+ * The block entries of rewards.json (ids and tags) and the crop maturity rule are compiled into
+ * arrays indexed by block state id, so a break is classified by one array read: XP, money and the
+ * skill that can double it. Tags are only bound once the server has loaded its data packs, so the
+ * table is compiled at server start and again after a data pack reload, and published by swapping
+ * one volatile reference.
+ */
+public final class BlockRewardTable {
+    private static volatile BlockRewardTable current = new BlockRewardTable(new int[0], new long[0], new byte[0]);
+
+    // Skill that can double the reward, as Skill ordinal; NO_SKILL if none
+    private static final byte NO_SKILL = -1;
+    private static final PlayerDataManager.Skill[] SKILLS = PlayerDataManager.Skill.values();
+
+    private final int[] xp;
+    private final long[] money;
+    private final byte[] skill;
+
+    private BlockRewardTable(int[] xp, long[] money, byte[] skill) {
+        this.xp = xp;
+        this.money = money;
+        this.skill = skill;
+    }
+
+    /**
+     * Compile the reward of every registered block state from the active definitions (tags must be bound)
+     */
+    static synchronized void rebuild() {
+        RewardDefinitions definitions = RewardDefinitions.get();
+        int size = Block.BLOCK_STATE_REGISTRY.size();
+        int[] xp = new int[size];
+        long[] money = new long[size];
+        byte[] skill = new byte[size];
+        Arrays.fill(skill, NO_SKILL);
+
+        int rewarding = 0;
+        for (BlockState state : Block.BLOCK_STATE_REGISTRY) {
+            int id = Block.getId(state);
+            if (id < 0 || id >= size) continue;
+            RewardDefinitions.BlockReward reward = find(definitions, state);
+            if (reward == null) continue;
+
+            xp[id] = reward.xp();
+            money[id] = reward.money();
+            // Double reward for mature crops, nothing for breaking immature ones
+            if (state.getBlock() instanceof CropBlock cropBlock) {
+                boolean mature = cropBlock.isMaxAge(state);
+                xp[id] = mature ? xp[id] * 2 : 0;
+                money[id] = mature ? money[id] * 2 : 0;
+            }
+            if (xp[id] > 0 || money[id] > 0) {
+                rewarding++;
+                // No bonus roll for breaks that give nothing (immature crops)
+                if (reward.skill() != null) {
+                    skill[id] = (byte) reward.skill().ordinal();
+                }
+            }
+        }
+        current = new BlockRewardTable(xp, money, skill);
+        VanillaPlusRpg.LOGGER.info("Compiled block rewards: {} of {} block states give rewards", rewarding, size);
+    }
+
+    /**
+     * The block's own entry, else the first tag entry it matches
+     */
+    private static RewardDefinitions.BlockReward find(RewardDefinitions definitions, BlockState state) {
+        RewardDefinitions.BlockReward reward = definitions.getBlocks().get(state.getBlock());
+        if (reward != null) return reward;
+        for (Map.Entry<TagKey<Block>, RewardDefinitions.BlockReward> entry : definitions.getBlockTags().entrySet()) {
+            if (state.is(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the active table
+     */
+    public static BlockRewardTable get() {
+        return current;
+    }
+
+    /**
+     * XP for breaking a block state (crop maturity already applied)
+     */
+    public int getXp(int stateId) {
+        return stateId >= 0 && stateId < xp.length ? xp[stateId] : 0;
+    }
+
+    /**
+     * Money for breaking a block state (crop maturity already applied)
+     */
+    public long getMoney(int stateId) {
+        return stateId >= 0 && stateId < money.length ? money[stateId] : 0;
+    }
+
+    /**
+     * Skill whose bonus roll can double the reward, or null
+     */
+    public PlayerDataManager.Skill getSkill(int stateId) {
+        byte ordinal = stateId >= 0 && stateId < skill.length ? skill[stateId] : NO_SKILL;
+        return ordinal == NO_SKILL ? null : SKILLS[ordinal];
+    }
+
+    /**
+     * Base XP defined for a block, ignoring tags and crop age
+     */
+    public static int getBaseXp(Block block) {
+        RewardDefinitions.BlockReward reward = RewardDefinitions.get().getBlocks().get(block);
+        return reward != null ? reward.xp() : 0;
+    }
+}
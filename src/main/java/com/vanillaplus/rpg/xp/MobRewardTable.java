@@ -0,0 +1,104 @@
+package com.vanillaplus.rpg.xp;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.animal.Animal;
+import net.minecraft.world.entity.monster.Monster;
+
+import java.util.Map;
+
+/**
+ * Kill rewards per entity type, resolved once and then read by raw entity type id
+ *
+ * Precedence, first match wins:
+ * 1. the type's own rewards.json "mobs" entry
+ * 2. the first "mobs" tag entry the type is in, in file order
+ * 3. the "monster" default, for Monster subclasses
+ * 4. the "animal" default, for Animal subclasses
+ * 5. no entry: 1x XP, money scaled by max health
+ *
+ * Steps 1-2 only depend on the type and are compiled with the other tables. Steps 3-5 need the
+ * entity's class, which is fixed per type, so they are resolved on the first kill of a type and
+ * cached in the same array. Every kill after that is one array read.
+ */
+public final class MobRewardTable {
+    // Step 5 - health-scaled money
+    private static final RewardDefinitions.MobReward NO_ENTRY = new RewardDefinitions.MobReward(1.0f, -1);
+
+    private static volatile MobRewardTable current = new MobRewardTable(RewardDefinitions.EMPTY, new RewardDefinitions.MobReward[0]);
+
+    private final RewardDefinitions definitions;
+    // null = not resolved yet (only written on the server thread)
+    private final RewardDefinitions.MobReward[] byType;
+
+    private MobRewardTable(RewardDefinitions definitions, RewardDefinitions.MobReward[] byType) {
+        this.definitions = definitions;
+        this.byType = byType;
+    }
+
+    /**
+     * Resolve the type and tag entries of every entity type from the active definitions (tags must be bound)
+     */
+    static synchronized void rebuild() {
+        RewardDefinitions definitions = RewardDefinitions.get();
+        RewardDefinitions.MobReward[] byType = new RewardDefinitions.MobReward[BuiltInRegistries.ENTITY_TYPE.size()];
+
+        int resolved = 0;
+        for (EntityType<?> type : BuiltInRegistries.ENTITY_TYPE) {
+            RewardDefinitions.MobReward reward = definitions.getMobs().get(type);
+            if (reward == null) {
+                for (Map.Entry<TagKey<EntityType<?>>, RewardDefinitions.MobReward> entry : definitions.getMobTags().entrySet()) {
+                    if (type.is(entry.getKey())) {
+                        reward = entry.getValue();
+                        break;
+                    }
+                }
+            }
+            if (reward != null) {
+                byType[BuiltInRegistries.ENTITY_TYPE.getId(type)] = reward;
+                resolved++;
+            }
+        }
+        current = new MobRewardTable(definitions, byType);
+        VanillaPlusRpg.LOGGER.info("Compiled mob rewards: {} entity types with their own entry", resolved);
+    }
+
+    /**
+     * Get the active table
+     */
+    public static MobRewardTable get() {
+        return current;
+    }
+
+    /**
+     * Reward for killing this entity (never null)
+     */
+    public RewardDefinitions.MobReward get(LivingEntity entity) {
+        int id = BuiltInRegistries.ENTITY_TYPE.getId(entity.getType());
+        if (id < 0 || id >= byType.length) {
+            return byClass(entity);
+        }
+        RewardDefinitions.MobReward reward = byType[id];
+        if (reward == null) {
+            reward = byClass(entity);
+            byType[id] = reward;
+        }
+        return reward;
+    }
+
+    /**
+     * Steps 3-5 of the precedence
+     */
+    private RewardDefinitions.MobReward byClass(LivingEntity entity) {
+        RewardDefinitions.MobReward reward = null;
+        if (entity instanceof Monster) {
+            reward = definitions.getMobDefault("monster");
+        } else if (entity instanceof Animal) {
+            reward = definitions.getMobDefault("animal");
+        }
+        return reward != null ? reward : NO_ENTRY;
+    }
+}
@@ -0,0 +1,238 @@
+package com.vanillaplus.rpg.xp;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentRegistry;
+import net.fabricmc.fabric.api.attachment.v1.AttachmentType;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerChunkEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.event.player.PlayerBlockBreakEvents;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.GlobalPos;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.LiquidBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.block.state.properties.Property;
+import net.minecraft.world.level.chunk.LevelChunk;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Remembers which blocks players placed, so breaking them again pays nothing
+ *
+ * Without this, placing and breaking the same log or ore block is an endless reward. A placed
+ * block that pays sets its bit in the chunk's PlacedBlocks (saved with the chunk), and the break
+ * reward is skipped while the bit is set. The check is one bit read.
+ *
+ * The bit follows the block, via a hook on every chunk block change:
+ * - removed by anything (player, TNT, fire, fluids): cleared
+ * - grown (age or stage changed - crops, cocoa, nether wart, sugar cane): cleared, so farming
+ *   what you planted pays once it has grown
+ * - pushed or pulled by a piston: moved to the new position
+ * - turned into another block in place (stripped log, oxidized copper): kept
+ */
+public final class PlacedBlockTracker {
+    public static final AttachmentType<PlacedBlocks> PLACED_BLOCKS = AttachmentRegistry.create(
+        Identifier.fromNamespaceAndPath(VanillaPlusRpg.MOD_ID, "placed_blocks"),
+        builder -> builder.persistent(PlacedBlocks.CODEC)
+    );
+
+    // Bitsets of loaded chunks: added when created or decoded, removed when the chunk unloads
+    // (weak, so one decoded for a chunk that never finished loading doesn't linger)
+    private static final Set<PlacedBlocks> live = Collections.synchronizedSet(Collections.newSetFromMap(new WeakHashMap<>()));
+
+    // Placed blocks a player has started to break this tick; the block change clears the bit
+    // before the reward handler runs, so the answer is taken before the break
+    private static final Set<GlobalPos> breaking = new HashSet<>();
+
+    // Stats
+    private static long marked = 0;
+    private static long cleared = 0;
+    private static long moved = 0;
+    private static long rewardsDenied = 0;
+
+    /**
+     * Load the attachment type and hook player breaks (call during mod init)
+     */
+    public static void register() {
+        PlayerBlockBreakEvents.BEFORE.register((world, player, pos, state, blockEntity) -> {
+            if (world instanceof ServerLevel level && isPlaced(level, pos)) {
+                breaking.add(GlobalPos.of(level.dimension(), pos.immutable()));
+            }
+            return true;
+        });
+        PlayerBlockBreakEvents.CANCELED.register((world, player, pos, state, blockEntity) -> {
+            if (!breaking.isEmpty()) breaking.remove(GlobalPos.of(world.dimension(), pos));
+        });
+        // Breaks that never reach AFTER (another mod refused them late) don't linger
+        ServerTickEvents.END_SERVER_TICK.register(server -> {
+            if (!breaking.isEmpty()) breaking.clear();
+        });
+        // Keep the memory stats to loaded chunks instead of waiting for the GC
+        ServerChunkEvents.CHUNK_UNLOAD.register((world, chunk) -> {
+            PlacedBlocks placed = chunk.getAttached(PLACED_BLOCKS);
+            if (placed != null) live.remove(placed);
+        });
+        VanillaPlusRpg.LOGGER.info("Registered placed block tracking ({})", PLACED_BLOCKS.identifier());
+    }
+
+    static void track(PlacedBlocks placed) {
+        live.add(placed);
+    }
+
+    /**
+     * A player placed this block
+     */
+    public static void onPlaced(ServerLevel level, BlockPos pos, BlockState state) {
+        BlockRewardTable rewards = BlockRewardTable.get();
+        int stateId = Block.getId(state);
+        if (rewards.getXp(stateId) <= 0 && rewards.getMoney(stateId) <= 0) return;
+
+        set(level.getChunkAt(pos), pos);
+        marked++;
+    }
+
+    /**
+     * A player broke this block (after it was removed)
+     * @return whether it was player-placed (no reward)
+     */
+    public static boolean wasPlaced(ServerLevel level, BlockPos pos) {
+        if (breaking.isEmpty() || !breaking.remove(GlobalPos.of(level.dimension(), pos))) return false;
+        rewardsDenied++;
+        return true;
+    }
+
+    /**
+     * Whether the block at this position was placed by a player
+     */
+    public static boolean isPlaced(ServerLevel level, BlockPos pos) {
+        PlacedBlocks placed = level.getChunkAt(pos).getAttached(PLACED_BLOCKS);
+        return placed != null && placed.get(pos);
+    }
+
+    // ========== BLOCK CHANGES ==========
+
+    /**
+     * Any block change in a loaded chunk (from the LevelChunk hook, server and client)
+     */
+    public static void onBlockChanged(LevelChunk chunk, BlockPos pos, BlockState oldState, BlockState newState) {
+        PlacedBlocks placed = chunk.getAttached(PLACED_BLOCKS);
+        if (placed == null || keepsBit(oldState, newState)) return;
+        if (clear(chunk, placed, pos)) cleared++;
+    }
+
+    private static boolean keepsBit(BlockState oldState, BlockState newState) {
+        if (newState.isAir() || newState.getBlock() instanceof LiquidBlock) return false;
+        // A pushed block arriving at its new position; its bit was moved ahead of it
+        if (oldState.is(Blocks.MOVING_PISTON)) return true;
+        // Becoming a moving block: the piston hook moves the bit to the destination
+        if (newState.is(Blocks.MOVING_PISTON)) return false;
+        if (oldState.getBlock() == newState.getBlock()) return !hasGrown(oldState, newState);
+        return true;
+    }
+
+    /**
+     * Whether a same-block state change is growth (an "age" or "stage" property moved)
+     */
+    private static boolean hasGrown(BlockState oldState, BlockState newState) {
+        for (Property<?> property : oldState.getProperties()) {
+            String name = property.getName();
+            if ((name.equals("age") || name.equals("stage")) && !oldState.getValue(property).equals(newState.getValue(property))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Of the blocks a piston is about to move, the ones that were placed (before anything moves)
+     */
+    public static List<BlockPos> findPlaced(ServerLevel level, List<BlockPos> toPush) {
+        List<BlockPos> result = null;
+        for (BlockPos pos : toPush) {
+            if (isPlaced(level, pos)) {
+                if (result == null) result = new ArrayList<>();
+                result.add(pos.immutable());
+            }
+        }
+        return result != null ? result : List.of();
+    }
+
+    /**
+     * A piston moved these placed blocks one step (their old bits were cleared by the move)
+     */
+    public static void onPistonMoved(ServerLevel level, List<BlockPos> sources, Direction direction) {
+        for (BlockPos source : sources) {
+            BlockPos target = source.relative(direction);
+            set(level.getChunkAt(target), target);
+            moved++;
+        }
+    }
+
+    private static void set(LevelChunk chunk, BlockPos pos) {
+        PlacedBlocks placed = chunk.getAttached(PLACED_BLOCKS);
+        if (placed == null) {
+            placed = new PlacedBlocks();
+            chunk.setAttached(PLACED_BLOCKS, placed);
+        }
+        placed.set(pos);
+        chunk.markUnsaved();
+    }
+
+    private static boolean clear(LevelChunk chunk, PlacedBlocks placed, BlockPos pos) {
+        if (!placed.clear(pos)) return false;
+        if (placed.isEmpty()) {
+            chunk.removeAttached(PLACED_BLOCKS);
+            live.remove(placed);
+        }
+        chunk.markUnsaved();
+        return true;
+    }
+
+    // ========== STATS ==========
+
+    /**
+     * Memory held by the bitsets of loaded chunks
+     */
+    public record MemoryStats(int chunks, int sections, long bytes) {}
+
+    public static MemoryStats getMemoryStats() {
+        List<PlacedBlocks> snapshot;
+        synchronized (live) {
+            snapshot = new ArrayList<>(live);
+        }
+        int chunks = 0;
+        int sections = 0;
+        for (PlacedBlocks placed : snapshot) {
+            int count = placed.getSectionCount();
+            if (count == 0) continue;
+            chunks++;
+            sections += count;
+        }
+        return new MemoryStats(chunks, sections, (long) sections * PlacedBlocks.SECTION_BYTES);
+    }
+
+    public static long getMarked() {
+        return marked;
+    }
+
+    public static long getCleared() {
+        return cleared;
+    }
+
+    public static long getMoved() {
+        return moved;
+    }
+
+    public static long getRewardsDenied() {
+        return rewardsDenied;
+    }
+}
@@ -0,0 +1,115 @@
+package com.vanillaplus.rpg.xp;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.LongStream;
+
+/**
+ * Which blocks of one chunk were placed by players
+ *
+ * One bit per block position, 4096 bits (64 longs, 512 bytes) per 16x16x16 section, allocated
+ * only for sections that contain a placed block and dropped again once the last bit clears.
+ * Stored on the chunk as a data attachment and saved with it.
+ */
+public final class PlacedBlocks {
+    public static final int SECTION_LONGS = 64;
+    public static final int SECTION_BYTES = SECTION_LONGS * Long.BYTES;
+
+    private record Section(int y, long[] bits) {}
+
+    private static final Codec<long[]> BITS_CODEC = Codec.LONG_STREAM.xmap(LongStream::toArray, Arrays::stream);
+
+    private static final Codec<Section> SECTION_CODEC = RecordCodecBuilder.create(instance -> instance.group(
+        Codec.INT.fieldOf("y").forGetter(Section::y),
+        BITS_CODEC.fieldOf("bits").forGetter(Section::bits)
+    ).apply(instance, Section::new));
+
+    public static final Codec<PlacedBlocks> CODEC = SECTION_CODEC.listOf().xmap(PlacedBlocks::fromSections, PlacedBlocks::toSections);
+
+    // Section y index -> bitset; written on the server thread, encoded when the chunk saves
+    private final Int2ObjectMap<long[]> sections = new Int2ObjectOpenHashMap<>();
+
+    public PlacedBlocks() {
+        PlacedBlockTracker.track(this);
+    }
+
+    private static PlacedBlocks fromSections(List<Section> list) {
+        PlacedBlocks placed = new PlacedBlocks();
+        for (Section section : list) {
+            // Ignore damaged entries rather than failing the chunk
+            if (section.bits().length == SECTION_LONGS) {
+                placed.sections.put(section.y(), section.bits().clone());
+            }
+        }
+        return placed;
+    }
+
+    private synchronized List<Section> toSections() {
+        List<Section> list = new ArrayList<>(sections.size());
+        for (Int2ObjectMap.Entry<long[]> entry : sections.int2ObjectEntrySet()) {
+            list.add(new Section(entry.getIntKey(), entry.getValue().clone()));
+        }
+        return list;
+    }
+
+    /**
+     * Bit of a position within its section: y, z, x - 4 bits each
+     */
+    private static int bitIndex(BlockPos pos) {
+        return ((pos.getY() & 15) << 8) | ((pos.getZ() & 15) << 4) | (pos.getX() & 15);
+    }
+
+    synchronized boolean get(BlockPos pos) {
+        long[] bits = sections.get(SectionPos.blockToSectionCoord(pos.getY()));
+        if (bits == null) return false;
+        int index = bitIndex(pos);
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    synchronized void set(BlockPos pos) {
+        long[] bits = sections.computeIfAbsent(SectionPos.blockToSectionCoord(pos.getY()), y -> new long[SECTION_LONGS]);
+        int index = bitIndex(pos);
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    /**
+     * Clear a position's bit
+     * @return whether it was set
+     */
+    synchronized boolean clear(BlockPos pos) {
+        int sectionY = SectionPos.blockToSectionCoord(pos.getY());
+        long[] bits = sections.get(sectionY);
+        if (bits == null) return false;
+        int index = bitIndex(pos);
+        long mask = 1L << index;
+        if ((bits[index >>> 6] & mask) == 0) return false;
+        bits[index >>> 6] &= ~mask;
+        if (isEmpty(bits)) {
+            sections.remove(sectionY);
+        }
+        return true;
+    }
+
+    private static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0) return false;
+        }
+        return true;
+    }
+
+    synchronized boolean isEmpty() {
+        return sections.isEmpty();
+    }
+
+    synchronized int getSectionCount() {
+        return sections.size();
+    }
+}
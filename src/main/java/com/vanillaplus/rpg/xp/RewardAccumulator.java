@@ -0,0 +1,151 @@
+package com.vanillaplus.rpg.xp;
+
+import com.vanillaplus.rpg.config.RpgConfig;
+import com.vanillaplus.rpg.data.EconomyJournal;
+import com.vanillaplus.rpg.data.PlayerDataManager;
+import com.vanillaplus.rpg.network.PlayerDataSyncHandler;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Collects block and kill rewards per player and pays them out in one go
+ *
+ * A tree farm, a TNT blast or a mob grinder can produce dozens of rewards in a tick. Instead of a
+ * profile commit, a vanilla XP grant and a notification packet for each, rewards are summed per
+ * player and flushed rewardFlushTicks after the first one: one commit (level ups included, however
+ * many), one XP grant and one merged notification.
+ *
+ * Server thread only. A flush is forced when the journal reason changes (a kill while mining), so
+ * every commit still carries the right reason.
+ */
+public class RewardAccumulator {
+    // Block rewards below this much XP don't pop up a notification
+    private static final int MIN_NOTIFY_XP = 3;
+
+    private static final Map<UUID, Pending> pending = new HashMap<>();
+
+    // Stats
+    private static long rewardsAdded = 0;
+    private static long flushes = 0;
+
+    /**
+     * Rewards waiting for one player
+     */
+    private static final class Pending {
+        final EconomyJournal.Reason reason;
+        final long flushAt;
+        int xp;
+        long money;
+        int vanillaXp;
+        // RewardNotificationPayload type: 0 = general, 1 = combat monster, 2 = combat animal
+        int rewardType;
+
+        Pending(EconomyJournal.Reason reason, long flushAt) {
+            this.reason = reason;
+            this.flushAt = flushAt;
+        }
+    }
+
+    /**
+     * Queue a reward for the player
+     * @param vanillaXp vanilla XP points to grant alongside
+     * @param rewardType notification type; a monster kill beats an animal kill beats a block
+     */
+    public static void add(ServerPlayer player, EconomyJournal.Reason reason, int xp, long money, int vanillaXp, int rewardType) {
+        UUID uuid = player.getUUID();
+        Pending rewards = pending.get(uuid);
+        if (rewards != null && rewards.reason != reason) {
+            flush(player);
+            rewards = null;
+        }
+        if (rewards == null) {
+            long now = player.level().getServer().getTickCount();
+            rewards = new Pending(reason, now + RpgConfig.get().rewardFlushTicks - 1);
+            pending.put(uuid, rewards);
+        }
+        rewards.xp += xp;
+        rewards.money += money;
+        rewards.vanillaXp += vanillaXp;
+        if (rewardType == 1 || (rewardType == 2 && rewards.rewardType == 0)) {
+            rewards.rewardType = rewardType;
+        }
+        rewardsAdded++;
+    }
+
+    /**
+     * Pay out every player whose window has ended (end of tick)
+     */
+    public static void tick(MinecraftServer server) {
+        if (pending.isEmpty()) return;
+        long now = server.getTickCount();
+        Iterator<Map.Entry<UUID, Pending>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Pending> entry = iterator.next();
+            if (entry.getValue().flushAt > now) continue;
+            iterator.remove();
+            ServerPlayer player = server.getPlayerList().getPlayer(entry.getKey());
+            if (player != null) {
+                payOut(player, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Pay out one player's rewards now (before disconnect)
+     */
+    public static void flush(ServerPlayer player) {
+        Pending rewards = pending.remove(player.getUUID());
+        if (rewards != null) {
+            payOut(player, rewards);
+        }
+    }
+
+    /**
+     * Pay out everything now (server stopping)
+     */
+    public static void flushAll(MinecraftServer server) {
+        for (ServerPlayer player : server.getPlayerList().getPlayers()) {
+            flush(player);
+        }
+        pending.clear();
+    }
+
+    private static void payOut(ServerPlayer player, Pending rewards) {
+        flushes++;
+        int oldLevel = PlayerDataManager.getRpgLevel(player);
+        if (rewards.xp > 0 || rewards.money > 0) {
+            PlayerDataManager.edit(player, rewards.reason, profile -> {
+                profile.addRpgXp(rewards.xp);
+                profile.addMoney(rewards.money);
+                XpEventHandler.applyLevelUpRewards(profile, oldLevel);
+            });
+        }
+        if (rewards.vanillaXp > 0) {
+            player.giveExperiencePoints(rewards.vanillaXp);
+        }
+
+        int newLevel = PlayerDataManager.getRpgLevel(player);
+        if (newLevel > oldLevel) {
+            XpEventHandler.onLevelUp(player, oldLevel, newLevel);
+        }
+
+        if (rewards.xp > 0 && (rewards.rewardType != 0 || rewards.xp >= MIN_NOTIFY_XP)) {
+            PlayerDataSyncHandler.sendRewardNotification(player, rewards.xp, rewards.money, rewards.vanillaXp, rewards.rewardType);
+        }
+    }
+
+    // ========== STATS ==========
+
+    public static long getRewardsAdded() {
+        return rewardsAdded;
+    }
+
+    public static long getFlushes() {
+        return flushes;
+    }
+}
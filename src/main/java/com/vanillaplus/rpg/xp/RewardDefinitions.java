@@ -0,0 +1,272 @@
+package com.vanillaplus.rpg.xp;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.vanillaplus.rpg.data.PlayerDataManager;
+import net.minecraft.core.Registry;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.Identifier;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.level.block.Block;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reward values from the rewards.json data pack files
+ *
+ * Each section maps an id or a "#tag" to a reward; an exact id always wins over a tag, and tags
+ * are tried in file order. Files from higher data packs override entries of lower ones, or
+ * replace everything below them with "replace": true.
+ *
+ * Definitions are parsed off-thread during a data pack load and kept pending until the reload has
+ * finished (tags are bound by then); publish() then swaps them in and the lookup tables are
+ * compiled from them. A failed reload discards the pending set.
+ */
+public final class RewardDefinitions {
+    public record BlockReward(int xp, long money, PlayerDataManager.Skill skill) {}
+
+    // money < 0 means scaled by the mob's max health
+    public record MobReward(float xpMultiplier, long money) {}
+
+    public record SmeltingReward(int xp, long money) {}
+
+    public static final RewardDefinitions EMPTY = new Builder().build();
+
+    private static volatile RewardDefinitions current = EMPTY;
+    private static volatile RewardDefinitions pending = null;
+
+    private final Map<Block, BlockReward> blocks;
+    private final Map<TagKey<Block>, BlockReward> blockTags;
+    private final Map<EntityType<?>, MobReward> mobs;
+    private final Map<TagKey<EntityType<?>>, MobReward> mobTags;
+    private final Map<String, MobReward> mobDefaults;
+    private final Map<Item, SmeltingReward> smelting;
+    private final Map<TagKey<Item>, SmeltingReward> smeltingTags;
+
+    private RewardDefinitions(Builder builder) {
+        blocks = Collections.unmodifiableMap(new LinkedHashMap<>(builder.blocks));
+        blockTags = Collections.unmodifiableMap(new LinkedHashMap<>(builder.blockTags));
+        mobs = Collections.unmodifiableMap(new LinkedHashMap<>(builder.mobs));
+        mobTags = Collections.unmodifiableMap(new LinkedHashMap<>(builder.mobTags));
+        mobDefaults = Collections.unmodifiableMap(new LinkedHashMap<>(builder.mobDefaults));
+        smelting = Collections.unmodifiableMap(new LinkedHashMap<>(builder.smelting));
+        smeltingTags = Collections.unmodifiableMap(new LinkedHashMap<>(builder.smeltingTags));
+    }
+
+    // ========== LIFECYCLE ==========
+
+    /**
+     * Get the active definitions
+     */
+    public static RewardDefinitions get() {
+        return current;
+    }
+
+    /**
+     * Hold freshly parsed definitions until the reload completes
+     */
+    static void setPending(RewardDefinitions definitions) {
+        pending = definitions;
+    }
+
+    /**
+     * Make the pending definitions active and compile the lookup tables (tags must be bound)
+     * @param success whether the data pack reload went through; if not, the pending set is dropped
+     */
+    public static synchronized void publish(boolean success) {
+        RewardDefinitions next = pending;
+        pending = null;
+        if (success && next != null) {
+            current = next;
+        }
+        BlockRewardTable.rebuild();
+        MobRewardTable.rebuild();
+        SmeltingRewardTable.rebuild();
+    }
+
+    // ========== ACCESS ==========
+
+    public Map<Block, BlockReward> getBlocks() {
+        return blocks;
+    }
+
+    public Map<TagKey<Block>, BlockReward> getBlockTags() {
+        return blockTags;
+    }
+
+    public Map<EntityType<?>, MobReward> getMobs() {
+        return mobs;
+    }
+
+    public Map<TagKey<EntityType<?>>, MobReward> getMobTags() {
+        return mobTags;
+    }
+
+    /**
+     * Fallback reward for a kind of mob ("monster", "animal"), or null
+     */
+    public MobReward getMobDefault(String kind) {
+        return mobDefaults.get(kind);
+    }
+
+    public Map<Item, SmeltingReward> getSmelting() {
+        return smelting;
+    }
+
+    public Map<TagKey<Item>, SmeltingReward> getSmeltingTags() {
+        return smeltingTags;
+    }
+
+    public int getEntryCount() {
+        return blocks.size() + blockTags.size() + mobs.size() + mobTags.size() + mobDefaults.size()
+            + smelting.size() + smeltingTags.size();
+    }
+
+    // ========== PARSING ==========
+
+    /**
+     * Collects the entries of one or more rewards.json files, lowest pack first
+     */
+    static final class Builder {
+        private final Map<Block, BlockReward> blocks = new LinkedHashMap<>();
+        private final Map<TagKey<Block>, BlockReward> blockTags = new LinkedHashMap<>();
+        private final Map<EntityType<?>, MobReward> mobs = new LinkedHashMap<>();
+        private final Map<TagKey<EntityType<?>>, MobReward> mobTags = new LinkedHashMap<>();
+        private final Map<String, MobReward> mobDefaults = new LinkedHashMap<>();
+        private final Map<Item, SmeltingReward> smelting = new LinkedHashMap<>();
+        private final Map<TagKey<Item>, SmeltingReward> smeltingTags = new LinkedHashMap<>();
+
+        /**
+         * Add one file's entries, collecting problems instead of throwing
+         */
+        void read(String source, JsonObject json, List<String> errors) {
+            if (json.has("replace") && json.get("replace").getAsBoolean()) {
+                blocks.clear();
+                blockTags.clear();
+                mobs.clear();
+                mobTags.clear();
+                mobDefaults.clear();
+                smelting.clear();
+                smeltingTags.clear();
+            }
+
+            for (Map.Entry<String, JsonObject> entry : section(source, json, "blocks", errors).entrySet()) {
+                String key = entry.getKey();
+                JsonObject value = entry.getValue();
+                int xp = value.has("xp") ? value.get("xp").getAsInt() : 0;
+                long money = value.has("money") ? value.get("money").getAsLong() : 0;
+                if (xp < 0 || money < 0) {
+                    errors.add(source + " blocks." + key + ": negative reward");
+                    continue;
+                }
+                PlayerDataManager.Skill skill = null;
+                if (value.has("skill")) {
+                    String name = value.get("skill").getAsString().toUpperCase(Locale.ROOT);
+                    try {
+                        skill = PlayerDataManager.Skill.valueOf(name);
+                    } catch (IllegalArgumentException e) {
+                        errors.add(source + " blocks." + key + ": unknown skill '" + value.get("skill").getAsString() + "'");
+                        continue;
+                    }
+                }
+                BlockReward reward = new BlockReward(xp, money, skill);
+                put(source, "blocks", key, reward, BuiltInRegistries.BLOCK, Registries.BLOCK, blocks, blockTags, errors);
+            }
+
+            for (Map.Entry<String, JsonObject> entry : section(source, json, "mobs", errors).entrySet()) {
+                MobReward reward = readMob(source + " mobs." + entry.getKey(), entry.getValue(), errors);
+                if (reward != null) {
+                    put(source, "mobs", entry.getKey(), reward, BuiltInRegistries.ENTITY_TYPE, Registries.ENTITY_TYPE, mobs, mobTags, errors);
+                }
+            }
+
+            for (Map.Entry<String, JsonObject> entry : section(source, json, "mob_defaults", errors).entrySet()) {
+                String kind = entry.getKey();
+                if (!kind.equals("monster") && !kind.equals("animal")) {
+                    errors.add(source + " mob_defaults." + kind + ": must be 'monster' or 'animal'");
+                    continue;
+                }
+                MobReward reward = readMob(source + " mob_defaults." + kind, entry.getValue(), errors);
+                if (reward != null) {
+                    mobDefaults.put(kind, reward);
+                }
+            }
+
+            for (Map.Entry<String, JsonObject> entry : section(source, json, "smelting", errors).entrySet()) {
+                String key = entry.getKey();
+                JsonObject value = entry.getValue();
+                int xp = value.has("xp") ? value.get("xp").getAsInt() : 0;
+                long money = value.has("money") ? value.get("money").getAsLong() : 0;
+                if (xp < 0 || money < 0) {
+                    errors.add(source + " smelting." + key + ": negative reward");
+                    continue;
+                }
+                put(source, "smelting", key, new SmeltingReward(xp, money), BuiltInRegistries.ITEM, Registries.ITEM, smelting, smeltingTags, errors);
+            }
+        }
+
+        private static MobReward readMob(String where, JsonObject value, List<String> errors) {
+            float multiplier = value.has("xp_multiplier") ? value.get("xp_multiplier").getAsFloat() : 1.0f;
+            long money = value.has("money") ? value.get("money").getAsLong() : -1;
+            if (multiplier < 0) {
+                errors.add(where + ": negative xp_multiplier");
+                return null;
+            }
+            return new MobReward(multiplier, money);
+        }
+
+        /**
+         * The entries of one section; non-object entries are reported and skipped
+         */
+        private static Map<String, JsonObject> section(String source, JsonObject json, String name, List<String> errors) {
+            Map<String, JsonObject> entries = new LinkedHashMap<>();
+            if (!json.has(name)) return entries;
+            if (!json.get(name).isJsonObject()) {
+                errors.add(source + " " + name + ": must be an object");
+                return entries;
+            }
+            for (Map.Entry<String, JsonElement> entry : json.getAsJsonObject(name).entrySet()) {
+                if (entry.getValue().isJsonObject()) {
+                    entries.put(entry.getKey(), entry.getValue().getAsJsonObject());
+                } else {
+                    errors.add(source + " " + name + "." + entry.getKey() + ": must be an object");
+                }
+            }
+            return entries;
+        }
+
+        /**
+         * Resolve an id or "#tag" key and store the reward in the matching map
+         */
+        private static <T, R> void put(String source, String section, String key, R reward,
+                                       Registry<T> registry, ResourceKey<? extends Registry<T>> registryKey,
+                                       Map<T, R> byId, Map<TagKey<T>, R> byTag, List<String> errors) {
+            boolean tag = key.startsWith("#");
+            Identifier id = Identifier.tryParse(tag ? key.substring(1) : key);
+            if (id == null) {
+                errors.add(source + " " + section + "." + key + ": invalid id");
+                return;
+            }
+            if (tag) {
+                // Tags can't be checked before they are bound; an unknown tag just matches nothing
+                byTag.put(TagKey.create(registryKey, id), reward);
+            } else if (registry.containsKey(id)) {
+                byId.put(registry.getValue(id), reward);
+            } else {
+                errors.add(source + " " + section + "." + key + ": unknown id");
+            }
+        }
+
+        RewardDefinitions build() {
+            return new RewardDefinitions(this);
+        }
+    }
+}
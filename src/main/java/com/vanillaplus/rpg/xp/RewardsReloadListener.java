@@ -0,0 +1,60 @@
+package com.vanillaplus.rpg.xp;
+
+import com.google.gson.JsonParser;
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import net.fabricmc.fabric.api.resource.v1.ResourceLoader;
+import net.minecraft.resources.Identifier;
+import net.minecraft.server.packs.PackType;
+import net.minecraft.server.packs.resources.Resource;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimplePreparableReloadListener;
+import net.minecraft.util.profiling.ProfilerFiller;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Loads data/vanillaplusrpg/rewards.json from every data pack
+ *
+ * Parsing runs on the reload worker threads; the result is only handed over in apply() and goes
+ * live once the whole reload has succeeded (see RewardDefinitions.publish).
+ */
+public class RewardsReloadListener extends SimplePreparableReloadListener<RewardDefinitions> {
+    public static final Identifier ID = Identifier.fromNamespaceAndPath(VanillaPlusRpg.MOD_ID, "rewards");
+    private static final Identifier FILE = Identifier.fromNamespaceAndPath(VanillaPlusRpg.MOD_ID, "rewards.json");
+
+    /**
+     * Register with the server data pack loader (call from common init)
+     */
+    public static void register() {
+        ResourceLoader.get(PackType.SERVER_DATA).registerReloader(ID, new RewardsReloadListener());
+    }
+
+    @Override
+    protected RewardDefinitions prepare(ResourceManager resourceManager, ProfilerFiller profiler) {
+        RewardDefinitions.Builder builder = new RewardDefinitions.Builder();
+        List<String> errors = new ArrayList<>();
+        // Lowest pack first, so higher packs override
+        List<Resource> files = resourceManager.getResourceStack(FILE);
+        for (Resource file : files) {
+            String source = file.sourcePackId() + "/" + FILE.getPath();
+            try (Reader reader = file.openAsReader()) {
+                builder.read(source, JsonParser.parseReader(reader).getAsJsonObject(), errors);
+            } catch (Exception e) {
+                errors.add(source + ": " + e.getMessage());
+            }
+        }
+        for (String error : errors) {
+            VanillaPlusRpg.LOGGER.warn("Skipping reward entry: {}", error);
+        }
+        RewardDefinitions definitions = builder.build();
+        VanillaPlusRpg.LOGGER.info("Loaded {} reward entries from {} file(s)", definitions.getEntryCount(), files.size());
+        return definitions;
+    }
+
+    @Override
+    protected void apply(RewardDefinitions definitions, ResourceManager resourceManager, ProfilerFiller profiler) {
+        RewardDefinitions.setPending(definitions);
+    }
+}
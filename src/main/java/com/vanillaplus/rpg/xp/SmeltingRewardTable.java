@@ -0,0 +1,87 @@
+package com.vanillaplus.rpg.xp;
+
+import com.vanillaplus.rpg.VanillaPlusRpg;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.tags.TagKey;
+import net.minecraft.world.item.Item;
+import net.minecraft.world.item.ItemStack;
+
+import java.util.Map;
+
+/**
+ * Smelting rewards per item, ready to read
+ *
+ * The smelting entries of rewards.json compiled into arrays indexed by raw item id, the same way
+ * BlockRewardTable works for block states. Rebuilt with it whenever the definitions change.
+ */
+public final class SmeltingRewardTable {
+    private static volatile SmeltingRewardTable current = new SmeltingRewardTable(new int[0], new long[0]);
+
+    private final int[] xp;
+    private final long[] money;
+
+    private SmeltingRewardTable(int[] xp, long[] money) {
+        this.xp = xp;
+        this.money = money;
+    }
+
+    /**
+     * Compile the reward of every registered item from the active definitions (tags must be bound)
+     */
+    static synchronized void rebuild() {
+        RewardDefinitions definitions = RewardDefinitions.get();
+        int size = BuiltInRegistries.ITEM.size();
+        int[] xp = new int[size];
+        long[] money = new long[size];
+
+        int rewarding = 0;
+        for (Item item : BuiltInRegistries.ITEM) {
+            RewardDefinitions.SmeltingReward reward = find(definitions, item);
+            if (reward == null) continue;
+            int id = BuiltInRegistries.ITEM.getId(item);
+            xp[id] = reward.xp();
+            money[id] = reward.money();
+            rewarding++;
+        }
+        current = new SmeltingRewardTable(xp, money);
+        VanillaPlusRpg.LOGGER.info("Compiled smelting rewards for {} items", rewarding);
+    }
+
+    /**
+     * The item's own entry, else the first tag entry it matches
+     */
+    private static RewardDefinitions.SmeltingReward find(RewardDefinitions definitions, Item item) {
+        RewardDefinitions.SmeltingReward reward = definitions.getSmelting().get(item);
+        if (reward != null || definitions.getSmeltingTags().isEmpty()) return reward;
+        ItemStack stack = item.getDefaultInstance();
+        for (Map.Entry<TagKey<Item>, RewardDefinitions.SmeltingReward> entry : definitions.getSmeltingTags().entrySet()) {
+            if (stack.is(entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the active table
+     */
+    public static SmeltingRewardTable get() {
+        return current;
+    }
+
+    /**
+     * XP per smelted item, 0 if none
+     */
+    public int getXp(Item item) {
+        int id = BuiltInRegistries.ITEM.getId(item);
+        return id >= 0 && id < xp.length ? xp[id] : 0;
+    }
+
+    /**
+     * Money per smelted item, 0 if none
+     */
+    public long getMoney(Item item) {
+        int id = BuiltInRegistries.ITEM.getId(item);
+        return id >= 0 && id < money.length ? money[id] : 0;
+    }
+}
@@ -1,7 +1,9 @@
 package com.vanillaplus.rpg.xp;
 
 import com.vanillaplus.rpg.VanillaPlusRpg;
+import com.vanillaplus.rpg.data.EconomyJournal;
 import com.vanillaplus.rpg.data.PlayerDataManager;
+import com.vanillaplus.rpg.data.PlayerProfile;
 import com.vanillaplus.rpg.network.PlayerDataSyncHandler;
 import net.fabricmc.fabric.api.event.player.PlayerBlockBreakEvents;
 import net.fabricmc.fabric.api.entity.event.v1.ServerLivingEntityEvents;
@@ -9,19 +11,15 @@ import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerLevel;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
-import net.minecraft.tags.BlockTags;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.LivingEntity;
-import net.minecraft.world.entity.animal.Animal;
 import net.minecraft.world.entity.monster.Monster;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.CropBlock;
-import net.minecraft.world.level.block.state.BlockState;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -44,17 +42,7 @@ public class XpEventHandler {
     
     // ========== XP VALUES ==========
     
-    // Mining XP values for specific blocks
-    private static final Map<Block, Integer> MINING_XP = new HashMap<>();
-    
-    // Money rewards for specific blocks
-    private static final Map<Block, Long> MINING_MONEY = new HashMap<>();
-    
-    // Mob kill XP multipliers
-    private static final Map<Class<? extends LivingEntity>, Float> MOB_XP_MULTIPLIER = new HashMap<>();
-    
-    // Mob kill money values
-    private static final Map<Class<? extends LivingEntity>, Long> MOB_MONEY = new HashMap<>();
+    // Block, mob and smelting rewards come from rewards.json (see RewardDefinitions)
     
     // Movement tracking for running rewards
     private static final Map<UUID, Long> LAST_MOVEMENT_REWARD = new HashMap<>();
@@ -62,160 +50,6 @@ public class XpEventHandler {
     private static final Map<UUID, BlockPos> LAST_POSITION = new HashMap<>();
     private static final double DISTANCE_PER_REWARD = 100.0; // Blocks traveled for reward
     
-    static {
-        // ========== ORE XP VALUES ==========
-        // These give good XP for mining
-        MINING_XP.put(Blocks.COAL_ORE, 5);
-        MINING_XP.put(Blocks.DEEPSLATE_COAL_ORE, 6);
-        MINING_XP.put(Blocks.IRON_ORE, 8);
-        MINING_XP.put(Blocks.DEEPSLATE_IRON_ORE, 10);
-        MINING_XP.put(Blocks.COPPER_ORE, 6);
-        MINING_XP.put(Blocks.DEEPSLATE_COPPER_ORE, 7);
-        MINING_XP.put(Blocks.GOLD_ORE, 12);
-        MINING_XP.put(Blocks.DEEPSLATE_GOLD_ORE, 15);
-        MINING_XP.put(Blocks.REDSTONE_ORE, 8);
-        MINING_XP.put(Blocks.DEEPSLATE_REDSTONE_ORE, 10);
-        MINING_XP.put(Blocks.LAPIS_ORE, 10);
-        MINING_XP.put(Blocks.DEEPSLATE_LAPIS_ORE, 12);
-        MINING_XP.put(Blocks.DIAMOND_ORE, 25);
-        MINING_XP.put(Blocks.DEEPSLATE_DIAMOND_ORE, 30);
-        MINING_XP.put(Blocks.EMERALD_ORE, 20);
-        MINING_XP.put(Blocks.DEEPSLATE_EMERALD_ORE, 25);
-        MINING_XP.put(Blocks.NETHER_QUARTZ_ORE, 8);
-        MINING_XP.put(Blocks.NETHER_GOLD_ORE, 10);
-        MINING_XP.put(Blocks.ANCIENT_DEBRIS, 50);
-        
-        // Valuable blocks
-        MINING_XP.put(Blocks.OBSIDIAN, 15);
-        MINING_XP.put(Blocks.CRYING_OBSIDIAN, 20);
-        MINING_XP.put(Blocks.END_STONE, 3);
-        MINING_XP.put(Blocks.NETHERRACK, 1);
-        MINING_XP.put(Blocks.GLOWSTONE, 5);
-        MINING_XP.put(Blocks.AMETHYST_CLUSTER, 8);
-        MINING_XP.put(Blocks.BUDDING_AMETHYST, 15);
-        
-        // Common blocks (low but meaningful XP)
-        MINING_XP.put(Blocks.STONE, 1);
-        MINING_XP.put(Blocks.COBBLESTONE, 1);
-        MINING_XP.put(Blocks.DIRT, 1);
-        MINING_XP.put(Blocks.GRASS_BLOCK, 1);
-        MINING_XP.put(Blocks.SAND, 1);
-        MINING_XP.put(Blocks.RED_SAND, 1);
-        MINING_XP.put(Blocks.GRAVEL, 1);
-        MINING_XP.put(Blocks.CLAY, 2);
-        MINING_XP.put(Blocks.TERRACOTTA, 1);
-        MINING_XP.put(Blocks.DEEPSLATE, 2);
-        MINING_XP.put(Blocks.TUFF, 1);
-        MINING_XP.put(Blocks.CALCITE, 1);
-        MINING_XP.put(Blocks.DRIPSTONE_BLOCK, 2);
-        
-        // Wood/logs (good for tree cutting)
-        MINING_XP.put(Blocks.OAK_LOG, 2);
-        MINING_XP.put(Blocks.SPRUCE_LOG, 2);
-        MINING_XP.put(Blocks.BIRCH_LOG, 2);
-        MINING_XP.put(Blocks.JUNGLE_LOG, 2);
-        MINING_XP.put(Blocks.ACACIA_LOG, 2);
-        MINING_XP.put(Blocks.DARK_OAK_LOG, 2);
-        MINING_XP.put(Blocks.MANGROVE_LOG, 2);
-        MINING_XP.put(Blocks.CHERRY_LOG, 2);
-        MINING_XP.put(Blocks.CRIMSON_STEM, 2);
-        MINING_XP.put(Blocks.WARPED_STEM, 2);
-        
-        // Leaves (small XP for clearing)
-        MINING_XP.put(Blocks.OAK_LEAVES, 1);
-        MINING_XP.put(Blocks.SPRUCE_LEAVES, 1);
-        MINING_XP.put(Blocks.BIRCH_LEAVES, 1);
-        MINING_XP.put(Blocks.JUNGLE_LEAVES, 1);
-        MINING_XP.put(Blocks.ACACIA_LEAVES, 1);
-        MINING_XP.put(Blocks.DARK_OAK_LEAVES, 1);
-        MINING_XP.put(Blocks.MANGROVE_LEAVES, 1);
-        MINING_XP.put(Blocks.CHERRY_LEAVES, 1);
-        MINING_XP.put(Blocks.AZALEA_LEAVES, 1);
-        MINING_XP.put(Blocks.FLOWERING_AZALEA_LEAVES, 2);
-        
-        // Crop blocks
-        MINING_XP.put(Blocks.WHEAT, 3);
-        MINING_XP.put(Blocks.CARROTS, 3);
-        MINING_XP.put(Blocks.POTATOES, 3);
-        MINING_XP.put(Blocks.BEETROOTS, 3);
-        MINING_XP.put(Blocks.MELON, 4);
-        MINING_XP.put(Blocks.PUMPKIN, 4);
-        MINING_XP.put(Blocks.SUGAR_CANE, 2);
-        MINING_XP.put(Blocks.BAMBOO, 1);
-        MINING_XP.put(Blocks.CACTUS, 2);
-        MINING_XP.put(Blocks.COCOA, 3);
-        MINING_XP.put(Blocks.NETHER_WART, 3);
-        MINING_XP.put(Blocks.SWEET_BERRY_BUSH, 2);
-        
-        // ========== MINING MONEY VALUES ==========
-        // Ores give money too
-        MINING_MONEY.put(Blocks.COAL_ORE, 2L);
-        MINING_MONEY.put(Blocks.DEEPSLATE_COAL_ORE, 3L);
-        MINING_MONEY.put(Blocks.IRON_ORE, 5L);
-        MINING_MONEY.put(Blocks.DEEPSLATE_IRON_ORE, 6L);
-        MINING_MONEY.put(Blocks.COPPER_ORE, 3L);
-        MINING_MONEY.put(Blocks.DEEPSLATE_COPPER_ORE, 4L);
-        MINING_MONEY.put(Blocks.GOLD_ORE, 10L);
-        MINING_MONEY.put(Blocks.DEEPSLATE_GOLD_ORE, 12L);
-        MINING_MONEY.put(Blocks.REDSTONE_ORE, 4L);
-        MINING_MONEY.put(Blocks.DEEPSLATE_REDSTONE_ORE, 5L);
-        MINING_MONEY.put(Blocks.LAPIS_ORE, 8L);
-        MINING_MONEY.put(Blocks.DEEPSLATE_LAPIS_ORE, 10L);
-        MINING_MONEY.put(Blocks.DIAMOND_ORE, 50L);
-        MINING_MONEY.put(Blocks.DEEPSLATE_DIAMOND_ORE, 60L);
-        MINING_MONEY.put(Blocks.EMERALD_ORE, 40L);
-        MINING_MONEY.put(Blocks.DEEPSLATE_EMERALD_ORE, 50L);
-        MINING_MONEY.put(Blocks.NETHER_QUARTZ_ORE, 4L);
-        MINING_MONEY.put(Blocks.NETHER_GOLD_ORE, 8L);
-        MINING_MONEY.put(Blocks.ANCIENT_DEBRIS, 100L);
-        
-        // Wood gives small money
-        MINING_MONEY.put(Blocks.OAK_LOG, 1L);
-        MINING_MONEY.put(Blocks.SPRUCE_LOG, 1L);
-        MINING_MONEY.put(Blocks.BIRCH_LOG, 1L);
-        MINING_MONEY.put(Blocks.JUNGLE_LOG, 1L);
-        MINING_MONEY.put(Blocks.ACACIA_LOG, 1L);
-        MINING_MONEY.put(Blocks.DARK_OAK_LOG, 1L);
-        MINING_MONEY.put(Blocks.MANGROVE_LOG, 1L);
-        MINING_MONEY.put(Blocks.CHERRY_LOG, 1L);
-        
-        // Crops give money on harvest
-        MINING_MONEY.put(Blocks.WHEAT, 2L);
-        MINING_MONEY.put(Blocks.CARROTS, 2L);
-        MINING_MONEY.put(Blocks.POTATOES, 2L);
-        MINING_MONEY.put(Blocks.BEETROOTS, 2L);
-        MINING_MONEY.put(Blocks.MELON, 3L);
-        MINING_MONEY.put(Blocks.PUMPKIN, 3L);
-        MINING_MONEY.put(Blocks.SUGAR_CANE, 1L);
-        MINING_MONEY.put(Blocks.BAMBOO, 1L);
-        MINING_MONEY.put(Blocks.CACTUS, 1L);
-        MINING_MONEY.put(Blocks.COCOA, 2L);
-        MINING_MONEY.put(Blocks.NETHER_WART, 2L);
-        MINING_MONEY.put(Blocks.SWEET_BERRY_BUSH, 1L);
-        
-        // Common blocks give small money
-        MINING_MONEY.put(Blocks.STONE, 1L);
-        MINING_MONEY.put(Blocks.COBBLESTONE, 1L);
-        MINING_MONEY.put(Blocks.DEEPSLATE, 1L);
-        MINING_MONEY.put(Blocks.OBSIDIAN, 5L);
-        MINING_MONEY.put(Blocks.CRYING_OBSIDIAN, 8L);
-        MINING_MONEY.put(Blocks.GLOWSTONE, 3L);
-        MINING_MONEY.put(Blocks.AMETHYST_CLUSTER, 5L);
-        MINING_MONEY.put(Blocks.END_STONE, 2L);
-        
-        // ========== MOB XP MULTIPLIERS ==========
-        // Monsters give 1.5x base XP
-        MOB_XP_MULTIPLIER.put(Monster.class, 1.5f);
-        
-        // Animals give 0.75x base XP
-        MOB_XP_MULTIPLIER.put(Animal.class, 0.75f);
-        
-        // ========== MOB MONEY VALUES ==========
-        // Default money for different entity types - scales by max health
-        MOB_MONEY.put(Animal.class, 5L); // Base for animals
-        MOB_MONEY.put(Monster.class, 15L); // Default for monsters
-    }
-    
     /**
      * Register all XP event handlers
      */
@@ -234,149 +68,42 @@ public class XpEventHandler {
             if (world.isClientSide()) return;
             if (!(player instanceof ServerPlayer serverPlayer)) return;
             
-            Block block = state.getBlock();
+            // Blocks a player placed pay nothing when broken again
+            if (PlacedBlockTracker.wasPlaced((ServerLevel) world, pos)) return;
             
-            // Calculate XP
-            int xp = getBlockXp(block, state);
-            
-            // Calculate money
-            long money = getBlockMoney(block, state);
+            // One lookup classifies the break: reward, crop maturity and skill bonus are precompiled
+            BlockRewardTable rewards = BlockRewardTable.get();
+            int stateId = Block.getId(state);
+            int xp = rewards.getXp(stateId);
+            long money = rewards.getMoney(stateId);
+            PlayerDataManager.Skill skill = rewards.getSkill(stateId);
             
             // ========== SKILL BONUSES ==========
-            boolean skillBonusTriggered = false;
             String skillBonusMessage = null;
-            
-            // Check Farming skill for crops
-            if (block instanceof CropBlock && xp > 0) {
-                if (PlayerDataManager.rollSkillBonus(serverPlayer, PlayerDataManager.Skill.FARMING)) {
-                    xp *= 2;
-                    money *= 2;
-                    skillBonusTriggered = true;
-                    skillBonusMessage = "§a✿ Double Harvest! (Farming Skill)";
-                }
-            }
-            
-            // Check Mining skill for ores
-            else if (isOre(block)) {
-                if (PlayerDataManager.rollSkillBonus(serverPlayer, PlayerDataManager.Skill.MINING)) {
-                    xp *= 2;
-                    money *= 2;
-                    skillBonusTriggered = true;
-                    skillBonusMessage = "§b⛏ Ore Vein! (Mining Skill)";
-                }
-            }
-            
-            // Check Woodcutting skill for logs
-            else if (state.is(BlockTags.LOGS)) {
-                if (PlayerDataManager.rollSkillBonus(serverPlayer, PlayerDataManager.Skill.WOODCUTTING)) {
-                    xp *= 2;
-                    money *= 2;
-                    skillBonusTriggered = true;
-                    skillBonusMessage = "§2🪓 Extra Wood! (Woodcutting Skill)";
-                }
-            }
-            
-            // Award XP
-            if (xp > 0) {
-                int oldLevel = PlayerDataManager.getRpgLevel(serverPlayer);
-                PlayerDataManager.addRpgXp(serverPlayer, xp);
-                int newLevel = PlayerDataManager.getRpgLevel(serverPlayer);
-                
-                // Give vanilla XP too (scaled down - about 1/5 of mod XP)
-                int vanillaXp = Math.max(1, xp / 5);
-                serverPlayer.giveExperiencePoints(vanillaXp);
-                
-                // Check for level up
-                if (newLevel > oldLevel) {
-                    onLevelUp(serverPlayer, newLevel);
-                }
-                
-                // Show reward notification (only for significant XP >= 3)
-                if (xp >= 3) {
-                    PlayerDataSyncHandler.sendRewardNotification(serverPlayer, xp, money, vanillaXp);
-                }
+            if (skill != null && PlayerDataManager.rollSkillBonus(serverPlayer, skill)) {
+                xp *= 2;
+                money *= 2;
+                skillBonusMessage = switch (skill) {
+                    case FARMING -> "§a✿ Double Harvest! (Farming Skill)";
+                    case MINING -> "§b⛏ Ore Vein! (Mining Skill)";
+                    case WOODCUTTING -> "§2🪓 Extra Wood! (Woodcutting Skill)";
+                    default -> null;
+                };
             }
             
-            // Award money
-            if (money > 0) {
-                PlayerDataManager.addMoney(serverPlayer, money);
+            // Queue XP, money and vanilla XP (about 1/5 of mod XP); paid out with the rest of this tick's rewards
+            if (xp > 0 || money > 0) {
+                int vanillaXp = xp > 0 ? Math.max(1, xp / 5) : 0;
+                RewardAccumulator.add(serverPlayer, EconomyJournal.Reason.MINING, xp, money, vanillaXp, 0);
             }
             
             // Show skill bonus message in action bar
-            if (skillBonusTriggered && skillBonusMessage != null) {
+            if (skillBonusMessage != null) {
                 serverPlayer.displayClientMessage(Component.literal(skillBonusMessage), true);
             }
         });
     }
     
-    /**
-     * Check if a block is an ore
-     */
-    private static boolean isOre(Block block) {
-        return block == Blocks.COAL_ORE || block == Blocks.DEEPSLATE_COAL_ORE ||
-               block == Blocks.IRON_ORE || block == Blocks.DEEPSLATE_IRON_ORE ||
-               block == Blocks.COPPER_ORE || block == Blocks.DEEPSLATE_COPPER_ORE ||
-               block == Blocks.GOLD_ORE || block == Blocks.DEEPSLATE_GOLD_ORE ||
-               block == Blocks.REDSTONE_ORE || block == Blocks.DEEPSLATE_REDSTONE_ORE ||
-               block == Blocks.LAPIS_ORE || block == Blocks.DEEPSLATE_LAPIS_ORE ||
-               block == Blocks.DIAMOND_ORE || block == Blocks.DEEPSLATE_DIAMOND_ORE ||
-               block == Blocks.EMERALD_ORE || block == Blocks.DEEPSLATE_EMERALD_ORE ||
-               block == Blocks.NETHER_QUARTZ_ORE || block == Blocks.NETHER_GOLD_ORE ||
-               block == Blocks.ANCIENT_DEBRIS;
-    }
-    
-    /**
-     * Get XP for breaking a block
-     */
-    private static int getBlockXp(Block block, BlockState state) {
-        // Check specific block first
-        if (MINING_XP.containsKey(block)) {
-            int baseXp = MINING_XP.get(block);
-            
-            // Bonus XP for fully grown crops
-            if (block instanceof CropBlock cropBlock) {
-                if (cropBlock.isMaxAge(state)) {
-                    return baseXp * 2; // Double XP for mature crops
-                }
-                return 0; // No XP for breaking immature crops
-            }
-            
-            return baseXp;
-        }
-        
-        // Check tags for generic blocks
-        if (state.is(BlockTags.LOGS)) return 2;
-        if (state.is(BlockTags.LEAVES)) return 1;
-        if (state.is(BlockTags.PLANKS)) return 1;
-        if (state.is(BlockTags.WOOL)) return 1;
-        if (state.is(BlockTags.FLOWERS)) return 1;
-        
-        // Default: 0 XP for untracked blocks
-        return 0;
-    }
-    
-    /**
-     * Get money for breaking a block
-     */
-    private static long getBlockMoney(Block block, BlockState state) {
-        // Check specific block first
-        if (MINING_MONEY.containsKey(block)) {
-            long baseMoney = MINING_MONEY.get(block);
-            
-            // Bonus money for fully grown crops
-            if (block instanceof CropBlock cropBlock) {
-                if (cropBlock.isMaxAge(state)) {
-                    return baseMoney * 2; // Double money for mature crops
-                }
-                return 0; // No money for breaking immature crops
-            }
-            
-            return baseMoney;
-        }
-        
-        return 0;
-    }
-    
     /**
      * Register combat XP events
      */
@@ -392,11 +119,13 @@ public class XpEventHandler {
             if (entity instanceof Player) return;
             
             // Calculate XP based on entity's max health and type
+            // Resolved once per entity type, then one array read per kill
+            RewardDefinitions.MobReward reward = MobRewardTable.get().get(entity);
             float maxHealth = entity.getMaxHealth();
-            int xp = calculateCombatXp(entity, maxHealth);
+            int xp = calculateCombatXp(reward, maxHealth);
             
             // Calculate money
-            long money = calculateCombatMoney(entity);
+            long money = calculateCombatMoney(reward, entity);
             
             // ========== COMBAT SKILL BONUS ==========
             boolean critTriggered = false;
@@ -408,47 +137,21 @@ public class XpEventHandler {
                     Component.literal("§c⚔ Critical Strike! §7(Combat Skill)"), true);
             }
             
-            // Award XP
-            int oldLevel = PlayerDataManager.getRpgLevel(serverPlayer);
-            PlayerDataManager.addRpgXp(serverPlayer, xp);
-            int newLevel = PlayerDataManager.getRpgLevel(serverPlayer);
-            
-            // Give vanilla XP too (scaled - about 1/3 of mod XP)
+            // Queue XP, money and vanilla XP (about 1/3 of mod XP); paid out with the rest of this tick's rewards
             int vanillaXp = Math.max(1, xp / 3);
-            serverPlayer.giveExperiencePoints(vanillaXp);
-            
-            // Award money
-            if (money > 0) {
-                PlayerDataManager.addMoney(serverPlayer, money);
-            }
-            
-            // Check for level up
-            if (newLevel > oldLevel) {
-                onLevelUp(serverPlayer, newLevel);
-            }
-            
-            // Show reward notification via overlay (longer lasting!)
             boolean isMonster = entity instanceof Monster;
-            PlayerDataSyncHandler.sendCombatRewardNotification(serverPlayer, xp, money, vanillaXp, isMonster);
+            RewardAccumulator.add(serverPlayer, EconomyJournal.Reason.COMBAT, xp, Math.max(0, money), vanillaXp, isMonster ? 1 : 2);
         });
     }
     
     /**
      * Calculate combat XP based on entity type and health
      */
-    private static int calculateCombatXp(LivingEntity entity, float maxHealth) {
+    private static int calculateCombatXp(RewardDefinitions.MobReward reward, float maxHealth) {
         int baseXp = (int) (maxHealth / 2); // Base XP = half of max health
         
         // Apply type multiplier
-        float multiplier = 1.0f;
-        for (Map.Entry<Class<? extends LivingEntity>, Float> entry : MOB_XP_MULTIPLIER.entrySet()) {
-            if (entry.getKey().isInstance(entity)) {
-                multiplier = entry.getValue();
-                break; // Use most specific match
-            }
-        }
-        
-        baseXp = (int) (baseXp * multiplier);
+        baseXp = (int) (baseXp * reward.xpMultiplier());
         
         // Minimum 3 XP, maximum 200 XP per kill
         return Math.max(3, Math.min(200, baseXp));
@@ -457,12 +160,9 @@ public class XpEventHandler {
     /**
      * Calculate money for killing an entity
      */
-    private static long calculateCombatMoney(LivingEntity entity) {
-        // Check specific entity types first
-        for (Map.Entry<Class<? extends LivingEntity>, Long> entry : MOB_MONEY.entrySet()) {
-            if (entry.getKey().isInstance(entity)) {
-                return entry.getValue();
-            }
+    private static long calculateCombatMoney(RewardDefinitions.MobReward reward, LivingEntity entity) {
+        if (reward.money() >= 0) {
+            return reward.money();
         }
         
         // Default: scale by health
@@ -532,8 +232,10 @@ public class XpEventHandler {
             int xp = player.isSprinting() ? 5 : 2; // More XP for sprinting
             long money = player.isSprinting() ? 3L : 1L;
             
-            PlayerDataManager.addRpgXp(player, xp);
-            PlayerDataManager.addMoney(player, money);
+            PlayerDataManager.edit(player, EconomyJournal.Reason.MOVEMENT, profile -> {
+                profile.addRpgXp(xp);
+                profile.addMoney(money);
+            });
             
             // Also give small vanilla XP for movement
             player.giveExperiencePoints(1);
@@ -542,10 +244,43 @@ public class XpEventHandler {
         }
     }
     
+    /**
+     * Apply level up rewards inside an edit, for every level the edit gained
+     */
+    static void applyLevelUpRewards(PlayerProfile profile, int oldLevel) {
+        int newLevel = profile.getRpgLevel();
+        if (newLevel <= oldLevel) return;
+        
+        // Give level up reward (bonus money)
+        profile.addMoney(getLevelUpRewards(oldLevel, newLevel));
+        
+        // Give a skill point per level up!
+        profile.addSkillPoints(newLevel - oldLevel);
+    }
+    
+    /**
+     * Bonus money for reaching a level
+     */
+    private static long getLevelUpReward(int newLevel) {
+        return newLevel * 50L;
+    }
+    
+    /**
+     * Bonus money for every level above oldLevel up to newLevel
+     */
+    private static long getLevelUpRewards(int oldLevel, int newLevel) {
+        long total = 0;
+        for (int level = oldLevel + 1; level <= newLevel; level++) {
+            total += getLevelUpReward(level);
+        }
+        return total;
+    }
+    
     /**
      * Handle level up event
+     * Rewards are already committed by applyLevelUpRewards - this only notifies the player
      */
-    private static void onLevelUp(ServerPlayer player, int newLevel) {
+    static void onLevelUp(ServerPlayer player, int oldLevel, int newLevel) {
         // Send level up message to chat
         player.sendSystemMessage(Component.literal(
             "§6§l⬆ LEVEL UP! §r§eYou are now level §f" + newLevel + "§e!"
@@ -561,14 +296,10 @@ public class XpEventHandler {
             1.0f
         );
         
-        // Give level up reward (bonus money)
-        long reward = newLevel * 50L;
-        PlayerDataManager.addMoney(player, reward);
-        
-        // Give skill point on level up!
-        PlayerDataManager.addSkillPoints(player, 1);
+        long reward = getLevelUpRewards(oldLevel, newLevel);
+        int points = newLevel - oldLevel;
         player.sendSystemMessage(Component.literal(
-            "§d+1 Skill Point §7(Press H to invest!)"
+            "§d+" + points + (points == 1 ? " Skill Point" : " Skill Points") + " §7(Press H to invest!)"
         ));
         
         // Send level up notification to overlay
@@ -579,7 +310,7 @@ public class XpEventHandler {
      * Get the XP value for mining a specific block (for external use)
      */
     public static int getMiningXp(Block block) {
-        return MINING_XP.getOrDefault(block, 0);
+        return BlockRewardTable.getBaseXp(block);
     }
     
     /**